@@ -30,7 +30,10 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryIndex;
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryKeyIndex;
 import com.viiyue.plugins.dict.spring.boot.meta.Language;
+import com.viiyue.plugins.dict.spring.boot.utils.Helper;
 
 /**
  * Dictionary Core Manager, which is used to centrally maintain various APIs for dictionaries.
@@ -97,6 +100,22 @@ public interface DictManager {
      */
     Map<String, Object> expandAll();
 
+    /**
+     * Expand the dictionaries of a namespace only, the result is the part of {@link #expandAll()} under the namespace,
+     * e.g. {@code expand("test.abc")} gives the whole example above, while {@code expand("test.abc.ddd")} gives only
+     * the "ddd" branch of it.
+     * 
+     * @param prefix the namespace of the dictionary keys, a trailing ".*" or "." is ignored.
+     * @return the expanded values, or an empty map if the namespace has no dictionaries.
+     * @see #getByPrefixAlways(String)
+     */
+    default Map<String, Object> expand( @NonNull String prefix ) {
+        Assert.notNull( prefix, "Please specify a dictionary key prefix" );
+        Map<String, Object> expanded = expandAll();
+        String namespace = DictionaryKeyIndex.namespace( prefix );
+        return namespace.isEmpty() ? expanded : Helper.branch( expanded, namespace );
+    }
+
     // Queries
 
     /**
@@ -150,6 +169,30 @@ public interface DictManager {
         return dicts;
     }
 
+    /**
+     * Query the dictionaries of all keys in a namespace, which are the prefix itself and the keys starting with the
+     * prefix and a dot, e.g. "user" matches "user" and "user.status", but not "username".
+     * 
+     * @param prefix the namespace of the dictionary keys, a trailing ".*" or "." is ignored.
+     * @return the dictionaries
+     */
+    default List<Dictionary> getByPrefix( @NonNull String prefix ) {
+        Assert.notNull( prefix, "Please specify a dictionary key prefix" );
+        return DictionaryKeyIndex.scan( getAll(), DictionaryKeyIndex.namespace( prefix ) );
+    }
+
+    /**
+     * Query the dictionaries of all keys in a namespace and <b>ignores status</b>
+     * 
+     * @param prefix the namespace of the dictionary keys, a trailing ".*" or "." is ignored.
+     * @return the dictionaries
+     * @see #getByPrefix(String)
+     */
+    default List<Dictionary> getByPrefixAlways( @NonNull String prefix ) {
+        Assert.notNull( prefix, "Please specify a dictionary key prefix" );
+        return DictionaryKeyIndex.scan( getAllAlways(), DictionaryKeyIndex.namespace( prefix ) );
+    }
+
     // Precise matching
 
     /**
@@ -196,6 +239,17 @@ public interface DictManager {
         return matching( key, dict -> Objects.equals( dict.getAlias(), alias ) );
     }
 
+    /**
+     * Get the code table of all dictionaries of the key, which matches codes without scanning the dictionary list
+     * 
+     * @param key the dictionary key
+     * @return the code table of the dictionary key
+     */
+    default DictionaryIndex index( @NonNull String key ) {
+        Assert.notNull( key, "Please specify a dictionary key" );
+        return DictionaryIndex.of( getAlways( key ) );
+    }
+
     /**
      * Filter the dictionary by specifying keys and predicate functions
      * 
@@ -269,7 +323,7 @@ public interface DictManager {
     int change( @Nullable Locale locale, @NonNull String key, @Nullable Integer code, boolean enabled );
 
     /**
-     * Change the status of all dictionary dictionary groups
+     * Change the status of the dictionaries of the key in all languages except the default one
      * 
      * @param key    the dictionary key, which cannot be {@code null}.
      * @param code   the dictionary code value, which can be {@code null}.
@@ -289,7 +343,7 @@ public interface DictManager {
     int remove( @Nullable Locale locale, @NonNull String key, @Nullable Integer code );
 
     /**
-     * Removes the data of the specified key from all dictionary tables
+     * Removes the data of the specified key from all languages except the default one
      * 
      * @param key  the dictionary key, which cannot be {@code null}.
      * @param code the dictionary code value, which can be {@code null}.
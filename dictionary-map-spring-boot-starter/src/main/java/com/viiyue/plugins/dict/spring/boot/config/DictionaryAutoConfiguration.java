@@ -15,10 +15,22 @@
  */
 package com.viiyue.plugins.dict.spring.boot.config;
 
+import static java.util.stream.Collectors.toList;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.sql.DataSource;
@@ -26,6 +38,7 @@ import javax.sql.DataSource;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationListener;
@@ -34,6 +47,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.convert.converter.ConverterRegistry;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -44,18 +58,24 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 import org.springframework.web.servlet.support.RequestContextUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viiyue.plugins.dict.spring.boot.DictContext;
 import com.viiyue.plugins.dict.spring.boot.DictManager;
+import com.viiyue.plugins.dict.spring.boot.config.endpoint.DictionaryExpandController;
 import com.viiyue.plugins.dict.spring.boot.config.resolver.DictionaryArgumentResolver;
 import com.viiyue.plugins.dict.spring.boot.config.resolver.DictionaryConverter;
 import com.viiyue.plugins.dict.spring.boot.config.resolver.LocaleArgumentResolver;
-import com.viiyue.plugins.dict.spring.boot.dialect.DefaultSqlResolver;
 import com.viiyue.plugins.dict.spring.boot.dialect.SqlResolver;
+import com.viiyue.plugins.dict.spring.boot.function.DictionaryChangeListener;
 import com.viiyue.plugins.dict.spring.boot.function.IdResolver;
 import com.viiyue.plugins.dict.spring.boot.function.LanguageResolver;
 import com.viiyue.plugins.dict.spring.boot.manager.MemoryDictManager;
+import com.viiyue.plugins.dict.spring.boot.manager.OffHeapDictManager;
 import com.viiyue.plugins.dict.spring.boot.manager.RedisDictManager;
+import com.viiyue.plugins.dict.spring.boot.manager.core.AbstractDictManager;
 import com.viiyue.plugins.dict.spring.boot.meta.ParameterBridge;
+import com.viiyue.plugins.dict.spring.boot.metrics.DictionaryRecorder;
+import com.viiyue.plugins.dict.spring.boot.utils.Helper;
 import com.viiyue.plugins.dict.spring.boot.utils.IdGenerator;
 
 /**
@@ -73,6 +93,8 @@ class DictionaryAutoConfiguration implements ApplicationListener<ApplicationStar
     private final DictionaryProperties props;
     private final RedisTemplate<String, Object> stringRedis;
     private final RedisTemplate<Object, Object> objectRedis;
+    private volatile CompletableFuture<Void> warmUp;
+    private volatile boolean awaitWarmUp;
 
     public DictionaryAutoConfiguration( 
         DictionaryProperties props, 
@@ -88,14 +110,40 @@ class DictionaryAutoConfiguration implements ApplicationListener<ApplicationStar
     
     @Bean
     @ConditionalOnMissingBean
-    public IdResolver idResolver() {
-        return IdGenerator::nextId;
+    public IdResolver idResolver( Environment environment ) {
+        Integer workerId = props.getWorkerId(), dataCenterId = props.getDataCenterId();
+        Assert.isTrue( ( workerId == null ) == ( dataCenterId == null ),
+                "\"spring.dict.worker-id\" and \"spring.dict.data-center-id\" must be set together" );
+        IdGenerator generator;
+        if ( workerId != null ) {
+            generator = IdGenerator.init( workerId, dataCenterId );
+            Helper.LOG.info( "The id generator uses the worker id {} and the data center id {}",
+                    generator.getWorkerId(), generator.getDataCenterId() );
+        } else {
+            String identity = hostName() + ":" + environment.getProperty( "server.port", "8080" );
+            generator = IdGenerator.init( identity );
+            Helper.LOG.warn( "The id generator derived the worker id {} and the data center id {} from \"{}\", "
+                    + "the derived ids may collide on larger deployments, set \"spring.dict.worker-id\" and "
+                    + "\"spring.dict.data-center-id\" for each node", generator.getWorkerId(),
+                    generator.getDataCenterId(), identity );
+        }
+        return new IdResolver() {
+            @Override
+            public Long nextId() {
+                return IdGenerator.nextId();
+            }
+
+            @Override
+            public long [] nextIds( int count ) {
+                return IdGenerator.nextIds( count );
+            }
+        };
     }
 
     @Bean
     @ConditionalOnMissingBean
     public SqlResolver sqlResolver() {
-        return new DefaultSqlResolver( props );
+        return SqlResolver.detect( props, dataSource );
     }
     
     @Bean
@@ -130,11 +178,13 @@ class DictionaryAutoConfiguration implements ApplicationListener<ApplicationStar
     public DictManager dictManager( 
         ObjectProvider<IdResolver> idResolver, 
         ObjectProvider<SqlResolver> sqlResolver,
-        ObjectProvider<LanguageResolver> languageResolver ) {
+        ObjectProvider<LanguageResolver> languageResolver,
+        ObjectProvider<DictionaryRecorder> recorders,
+        ObjectProvider<DictionaryChangeListener> listeners ) {
         
         DictManager manager = null;
         ParameterBridge bridge = new ParameterBridge( props, idResolver.getIfAvailable(), sqlResolver.getIfAvailable(),
-                languageResolver.getIfAvailable() );
+                languageResolver.getIfAvailable(), DictionaryRecorder.of( recorders.orderedStream().collect( toList() ) ) );
         
         // Cache in redis
         if ( props.isRedisFirst() ) {
@@ -147,11 +197,31 @@ class DictionaryAutoConfiguration implements ApplicationListener<ApplicationStar
         
         // Cache in memory
         if ( manager == null ) {
-            manager = new MemoryDictManager( bridge, dataSource );
+            manager = props.isOffHeap() ? new OffHeapDictManager( bridge, dataSource )
+                    : new MemoryDictManager( bridge, dataSource );
+        }
+        
+        // Notify the listeners of the dictionary changes
+        if ( manager instanceof AbstractDictManager ) {
+            AbstractDictManager<?> dictManager = ( AbstractDictManager<?> ) manager;
+            listeners.orderedStream().forEach( dictManager::addListener );
         }
         
         // Initialize the dictionary data
-        if ( props.isLoadedDefault() ) {
+        Path snapshot = snapshotFile( manager );
+        if ( snapshot != null ) {
+            AbstractDictManager<?> dictManager = ( AbstractDictManager<?> ) manager;
+            boolean restored = dictManager.restoreSnapshot( snapshot );
+            if ( !restored && !props.isWarmUp() && props.isLoadedDefault() ) {
+                manager.getAllAlways();
+            }
+            warmUp = background( "synchronize the dictionary snapshot", 
+                    languages -> dictManager.synchronizeSnapshot( snapshot, languages ) );
+            awaitWarmUp = !restored && props.isWarmUp() && props.isWarmUpAwait();
+        } else if ( props.isWarmUp() && manager instanceof AbstractDictManager ) {
+            warmUp = background( "warm up the dictionaries", ( ( AbstractDictManager<?> ) manager )::warmUp );
+            awaitWarmUp = props.isWarmUpAwait();
+        } else if ( props.isLoadedDefault() ) {
             if ( props.isLogEnable() ) {
                 props.printLog(  "Initialize loading default dictionary data" );
             }
@@ -162,10 +232,30 @@ class DictionaryAutoConfiguration implements ApplicationListener<ApplicationStar
         return manager;
     }
 
+    @Bean
+    @ConditionalOnProperty( prefix = "spring.dict.expand-endpoint", name = "enable", havingValue = "true" )
+    public DictionaryExpandController dictionaryExpandController( DictManager dictManager,
+            ObjectProvider<ObjectMapper> objectMapperProvider ) {
+        Assert.isInstanceOf( AbstractDictManager.class, dictManager,
+                "The expand endpoint requires a dictionary manager extending AbstractDictManager" );
+        return new DictionaryExpandController( ( AbstractDictManager<?> ) dictManager,
+                objectMapperProvider.getIfAvailable( ObjectMapper::new ) );
+    }
+
     @Override
     public void onApplicationEvent( ApplicationStartedEvent event ) {
         ConfigurableApplicationContext context = event.getApplicationContext();
         
+        // Hold the readiness until the dictionaries are loaded
+        CompletableFuture<Void> warmUp = this.warmUp;
+        if ( warmUp != null && awaitWarmUp ) {
+            try {
+                warmUp.join();
+            } catch ( CompletionException e ) {
+                // Already logged, the dictionaries are loaded on demand
+            }
+        }
+        
         DictManager dictManager = context.getBean( DictManager.class );
         RequestMappingHandlerAdapter handlerAdapter = context.getBean( RequestMappingHandlerAdapter.class );
         List<HandlerMethodArgumentResolver> defaults = handlerAdapter.getArgumentResolvers();
@@ -185,5 +275,53 @@ class DictionaryAutoConfiguration implements ApplicationListener<ApplicationStar
         ConverterRegistry converterRegistry = context.getBean( ConverterRegistry.class );
         converterRegistry.addConverter( new DictionaryConverter( dictManager ) );
     }
-    
+
+    /**
+     * The snapshot only works with the local memory cache, a shared cache is already warm after the first node
+     */
+    private Path snapshotFile( DictManager manager ) {
+        String snapshotFile = props.getSnapshotFile();
+        if ( StringUtils.isEmpty( snapshotFile ) ) {
+            return null;
+        }
+        if ( !( manager instanceof MemoryDictManager ) ) {
+            Helper.LOG.warn( "The dictionary snapshot is ignored, it only works with the memory cache" );
+            return null;
+        }
+        return Paths.get( snapshotFile );
+    }
+
+    /**
+     * Load the dictionaries of the languages in the background, so that it runs alongside the rest of the startup
+     */
+    private CompletableFuture<Void> background( String operation,
+            Function<Collection<String>, Map<String, Integer>> loader ) {
+        String [] languages = props.getWarmUpLanguages();
+        return CompletableFuture.runAsync( () -> {
+            long start = System.currentTimeMillis();
+            try {
+                Map<String, Integer> results = loader.apply( languages == null ? null : Arrays.asList( languages ) );
+                if ( props.isLogEnable() ) {
+                    props.printLog( "Loaded the dictionaries of {} languages in {} ms to {}: {}", results.size(),
+                            System.currentTimeMillis() - start, operation, results );
+                }
+            } catch ( RuntimeException e ) {
+                Helper.LOG.error( "Failed to " + operation + ": " + e.getMessage(), e );
+                throw e;
+            }
+        }, runnable -> {
+            Thread thread = new Thread( runnable, "dictionary-warm-up" );
+            thread.setDaemon( true );
+            thread.start();
+        } );
+    }
+
+    private String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch ( UnknownHostException e ) {
+            return "localhost";
+        }
+    }
+
 }
@@ -40,16 +40,61 @@ public class DictionaryProperties {
      */
     private boolean redisFirst = true;
     
+    /**
+     * Whether the memory cache packs the large dictionary lists off the heap, for very large dictionaries
+     */
+    private boolean offHeap = false;
+    
+    /**
+     * The minimum size of the dictionary lists packed off the heap( only for off heap mode )
+     */
+    private int offHeapThreshold = 256;
+    
     /**
      * Whether to load default dictionary data automatically
      */
     private boolean loadedDefault = true;
     
+    /**
+     * Whether to load the dictionaries of all languages concurrently at startup, including the all lists, the
+     * dictionaries and code indexes of each key, and the expanded trees
+     */
+    private boolean warmUp = false;
+    
+    /**
+     * The languages to load at startup, all languages if not set( only for warm up mode )
+     */
+    private String [] warmUpLanguages;
+    
+    /**
+     * Whether to hold the application readiness until the warm up is finished, otherwise it runs in the background
+     * ( only for warm up mode )
+     */
+    private boolean warmUpAwait = true;
+    
+    /**
+     * The local snapshot file of the dictionaries, which is restored into the memory cache at startup and then
+     * synchronized with the database in the background( only for the memory cache )
+     */
+    private String snapshotFile;
+    
     /**
      * Whether to enable parsing of the locale parameter
      */
     private boolean localeArgumentResolver = true;
     
+    /**
+     * Whether MyBatis resolves the dictionaries of a whole result set at once after the query, instead of row by row
+     * while the result set is being mapped
+     */
+    private boolean batchResolve = false;
+    
+    /**
+     * The number of rows resolved at once when MyBatis streams results through a cursor or a result handler( only for
+     * batch resolve mode ), a result handler that stops may have read up to this number of extra rows.
+     */
+    private int chunkSize = 500;
+    
     /**
      * Set the minimum number of batch executions
      */
@@ -59,6 +104,22 @@ public class DictionaryProperties {
      * Set the maximum number of batch executions
      */
     private int bigBatchSize = 1000;
+    
+    /**
+     * The maximum number of languages operated concurrently by cross-language operations
+     */
+    private int parallelism = Math.min( 8, Runtime.getRuntime().availableProcessors() );
+
+    /**
+     * The worker id of the default id generator [ 0-31 ], it must be set together with the data center id. Both are
+     * derived from the hash of the host name and server port if not set, which may collide from around 40 nodes on.
+     */
+    private Integer workerId;
+    
+    /**
+     * The data center id of the default id generator [ 0-31 ], it must be set together with the worker id
+     */
+    private Integer dataCenterId;
 
     /**
      * Set the log level
@@ -90,6 +151,16 @@ public class DictionaryProperties {
      */
     private String langTable = "global_dictionary_lang";
     
+    /**
+     * The storage mode of the dictionary data
+     */
+    private StorageMode storageMode = StorageMode.TABLE_PER_LANGUAGE;
+    
+    /**
+     * The language column of the shared dictionary table( only for {@link StorageMode#SINGLE_TABLE} )
+     */
+    private String langColumn = "lang";
+    
     /**
      * Exported fields
      */
@@ -104,14 +175,46 @@ public class DictionaryProperties {
         return redisFirst;
     }
 
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public int getOffHeapThreshold() {
+        return offHeapThreshold;
+    }
+
     public boolean isLoadedDefault() {
         return loadedDefault;
     }
 
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public String [] getWarmUpLanguages() {
+        return warmUpLanguages;
+    }
+
+    public boolean isWarmUpAwait() {
+        return warmUpAwait;
+    }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
     public final boolean isLocaleArgumentResolver() {
         return localeArgumentResolver;
     }
 
+    public boolean isBatchResolve() {
+        return batchResolve;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
     public int getSmallBatchSize() {
         return smallBatchSize;
     }
@@ -120,6 +223,18 @@ public class DictionaryProperties {
         return bigBatchSize;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public Integer getWorkerId() {
+        return workerId;
+    }
+
+    public Integer getDataCenterId() {
+        return dataCenterId;
+    }
+
     public String getCacheKey() {
         return cacheKey;
     }
@@ -145,13 +260,25 @@ public class DictionaryProperties {
     }
 
     public String getDictTable( String language ) {
-        return isEmpty( language ) ? dictTable : dictTable + "_" + language;
+        return isEmpty( language ) || isSingleTable() ? dictTable : dictTable + "_" + language;
     }
 
     public String getLanguageTable() {
         return this.langTable;
     }
     
+    public final StorageMode getStorageMode() {
+        return storageMode;
+    }
+    
+    public final boolean isSingleTable() {
+        return storageMode == StorageMode.SINGLE_TABLE;
+    }
+    
+    public final String getLangColumn() {
+        return langColumn;
+    }
+    
     public final String [] getExpands() {
         return expands;
     }
@@ -180,6 +307,16 @@ public class DictionaryProperties {
         logLevel.print( message, varargs );
     }
 
+    public static enum StorageMode {
+        
+        /** Each language has its own dictionary table, such as "global_dictionary_zh_cn" */
+        TABLE_PER_LANGUAGE,
+        
+        /** All languages share one dictionary table, which is partitioned by the language column */
+        SINGLE_TABLE
+        
+    }
+
     public static enum LogLevel {
 
         NONE, // Do nothing
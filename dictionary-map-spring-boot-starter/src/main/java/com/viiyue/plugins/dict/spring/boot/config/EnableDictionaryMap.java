@@ -24,7 +24,11 @@ import java.lang.annotation.Target;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.annotation.Order;
 
+import com.viiyue.plugins.dict.spring.boot.config.endpoint.EndpointAutoConfiguration;
+import com.viiyue.plugins.dict.spring.boot.config.metrics.FlightRecorderAutoConfiguration;
+import com.viiyue.plugins.dict.spring.boot.config.metrics.MetricsAutoConfiguration;
 import com.viiyue.plugins.dict.spring.boot.config.mybatis.MybatisAutoConfiguration;
+import com.viiyue.plugins.dict.spring.boot.config.resolver.DictionaryJacksonModule;
 import com.viiyue.plugins.dict.spring.boot.config.resolver.DictionaryJsonDeserializer;
 import com.viiyue.plugins.dict.spring.boot.config.resolver.DictionaryJsonSerializer;
 
@@ -41,6 +45,10 @@ import com.viiyue.plugins.dict.spring.boot.config.resolver.DictionaryJsonSeriali
 @Import( { 
     DictionaryAutoConfiguration.class, 
     MybatisAutoConfiguration.class, 
+    MetricsAutoConfiguration.class, 
+    FlightRecorderAutoConfiguration.class, 
+    EndpointAutoConfiguration.class, 
     DictionaryJsonSerializer.class, 
-    DictionaryJsonDeserializer.class } )
+    DictionaryJsonDeserializer.class, 
+    DictionaryJacksonModule.class } )
 public @interface EnableDictionaryMap {}
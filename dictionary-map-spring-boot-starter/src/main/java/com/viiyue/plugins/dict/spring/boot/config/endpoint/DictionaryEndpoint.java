@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import com.viiyue.plugins.dict.spring.boot.manager.core.AbstractDictManager;
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.metrics.DictionaryStatistics;
+import com.viiyue.plugins.dict.spring.boot.metrics.DictionaryStatistics.LanguageStatistics;
+
+/**
+ * The actuator endpoint to inspect and control the dictionary cache, such as {@code /actuator/dictionary}. The
+ * language "default" means the default language, and all languages are operated if no language is given.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@Endpoint( id = "dictionary" )
+public class DictionaryEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final AbstractDictManager<?> dictManager;
+    private final DictionaryStatistics statistics;
+
+    public DictionaryEndpoint( AbstractDictManager<?> dictManager, DictionaryStatistics statistics ) {
+        this.dictManager = dictManager;
+        this.statistics = statistics;
+    }
+
+    /**
+     * GET /actuator/dictionary?top=20
+     * 
+     * @param top the number of hot keys
+     * @return the cache overview
+     */
+    @ReadOperation
+    public Map<String, Object> overview( @Nullable Integer top ) {
+        Map<String, Object> overview = new LinkedHashMap<>( 8 );
+        overview.put( "backend", dictManager.backend() );
+        overview.put( "entries", dictManager.size() );
+        List<Map<String, Object>> languages = new ArrayList<>();
+        for ( String language : dictManager.languages( true ) ) {
+            languages.add( describe( language ) );
+        }
+        overview.put( "languages", languages );
+        overview.put( "hotKeys", statistics.hotKeys( top == null ? DEFAULT_TOP : top ) );
+        return overview;
+    }
+
+    /**
+     * POST /actuator/dictionary {"action": "warm|refresh", "language": "zh_cn", "key": "user.gender"}
+     * 
+     * @param action   "warm" loads the missing caches, "refresh" reloads the cached dictionaries.
+     * @param language the language, all languages if it is absent.
+     * @param key      the dictionary key( only for "refresh" ), the cached keys if it is absent.
+     * @return the operated languages
+     */
+    @WriteOperation
+    public Map<String, Object> operate( String action, @Nullable String language, @Nullable String key ) {
+        List<String> languages = targets( language );
+        for ( String target : languages ) {
+            if ( "warm".equals( action ) ) {
+                dictManager.warm( target );
+            } else if ( "refresh".equals( action ) ) {
+                dictManager.refresh( target, key == null ? null : Collections.singleton( key ) );
+            } else {
+                throw new IllegalArgumentException( "Unsupported action \"" + action + "\", only warm and refresh" );
+            }
+        }
+        return result( action, languages, key );
+    }
+
+    /**
+     * DELETE /actuator/dictionary?language=zh_cn&key=user.gender
+     * 
+     * @param language the language, all languages if it is absent.
+     * @param key      the dictionary key, the cached keys if it is absent.
+     * @return the operated languages
+     */
+    @DeleteOperation
+    public Map<String, Object> evict( @Nullable String language, @Nullable String key ) {
+        List<String> languages = targets( language );
+        for ( String target : languages ) {
+            dictManager.evict( target, key == null ? null : Collections.singleton( key ) );
+        }
+        return result( "evict", languages, key );
+    }
+
+    private Map<String, Object> describe( String language ) {
+        Map<String, Object> description = new LinkedHashMap<>( 12 );
+        description.put( "language", language == null ? DictionaryStatistics.DEFAULT_LANGUAGE : language );
+        List<Dictionary> dicts = dictManager.cachedAll( language );
+        description.put( "cached", dicts != null );
+        description.put( "entries", dicts == null ? 0 : dicts.size() );
+        description.put( "estimatedBytes", estimate( dicts ) );
+        LanguageStatistics stats = statistics.get( language );
+        if ( stats != null ) {
+            description.put( "version", stats.getVersion() );
+            description.put( "hits", stats.getHits() );
+            description.put( "misses", stats.getMisses() );
+            description.put( "hitRate", stats.getHitRate() );
+            description.put( "lastLoaded", stats.getLastLoaded() );
+            description.put( "lastChanged", stats.getLastChanged() );
+        }
+        return description;
+    }
+
+    private List<String> targets( String language ) {
+        if ( language == null || language.isEmpty() ) {
+            return dictManager.languages( true );
+        }
+        Assert.isTrue( language.indexOf( '*' ) < 0, "The language cannot contain wildcards" );
+        return Collections.singletonList( DictionaryStatistics.DEFAULT_LANGUAGE.equals( language ) ? null : language );
+    }
+
+    private Map<String, Object> result( String action, List<String> languages, String key ) {
+        List<String> names = new ArrayList<>( languages.size() );
+        for ( String language : languages ) {
+            names.add( language == null ? DictionaryStatistics.DEFAULT_LANGUAGE : language );
+        }
+        Map<String, Object> result = new LinkedHashMap<>( 4 );
+        result.put( "action", action );
+        result.put( "languages", names );
+        result.put( "key", key );
+        return result;
+    }
+
+    /**
+     * A rough estimate of the heap bytes of the cached dictionaries, which counts the objects of each dictionary and
+     * two bytes per character.
+     */
+    private static long estimate( List<Dictionary> dicts ) {
+        if ( dicts == null ) {
+            return 0;
+        }
+        long bytes = 16 + dicts.size() * 4L;
+        for ( Dictionary dict : dicts ) {
+            bytes += 64 + 16 + 16 + 2 * 48; // Dictionary, id, code, create/update times
+            bytes += estimate( dict.getType() ) + estimate( dict.getKey() ) + estimate( dict.getAlias() )
+                    + estimate( dict.getText() );
+        }
+        return bytes;
+    }
+
+    private static long estimate( String text ) {
+        return text == null ? 0 : 40 + text.length() * 2L;
+    }
+
+}
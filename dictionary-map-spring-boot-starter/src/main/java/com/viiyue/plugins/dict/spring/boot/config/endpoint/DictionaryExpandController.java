@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.endpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viiyue.plugins.dict.spring.boot.manager.core.AbstractDictManager;
+import com.viiyue.plugins.dict.spring.boot.meta.ParameterBridge;
+
+/**
+ * Serves the expanded dictionaries of the request language as pre-serialized and pre-compressed bytes. If the manager
+ * holds the expanded dictionaries by reference, the bytes of a language are only regenerated after the dictionaries of
+ * the language( or a language it falls back to ) are changed, otherwise the dictionaries may be changed by other nodes
+ * through the shared cache, and they are serialized for each request. The strong ETag of the bytes lets clients
+ * revalidate their copies with {@code If-None-Match}, and the optional {@code prefix} parameter narrows the response to
+ * the dictionaries of one namespace.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@RestController
+public class DictionaryExpandController {
+
+    private static final String DEFAULT_LANGUAGE = "";
+    private static final String ACCEPT_ENCODING_GZIP = "gzip";
+
+    private final AbstractDictManager<?> dictManager;
+    private final ObjectMapper objectMapper;
+    private final ParameterBridge bridge;
+    private final boolean cacheable;
+    private final Map<String, Map<String, Snapshot>> snapshots = new ConcurrentHashMap<>( 8 );
+
+    public DictionaryExpandController( AbstractDictManager<?> dictManager, ObjectMapper objectMapper ) {
+        this.dictManager = dictManager;
+        this.objectMapper = objectMapper;
+        this.bridge = dictManager.bridge();
+        this.cacheable = dictManager.isByReference();
+        if ( cacheable ) {
+            dictManager.addListener( this::evict );
+        }
+    }
+
+    @GetMapping( path = "${spring.dict.expand-endpoint.path:/dictionary/expands}", produces = MediaType.APPLICATION_JSON_VALUE )
+    public ResponseEntity<byte []> expandAll( ServletWebRequest request,
+            @RequestParam( name = "prefix", required = false ) String prefix ) {
+        Snapshot snapshot = snapshot( prefix == null ? "" : prefix );
+        
+        String acceptEncoding = request.getHeader( HttpHeaders.ACCEPT_ENCODING );
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains( ACCEPT_ENCODING_GZIP );
+        String eTag = gzip ? snapshot.gzipETag : snapshot.eTag;
+        
+        // The content varies with the language and the encoding
+        request.getResponse().addHeader( HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE );
+        request.getResponse().addHeader( HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING );
+        if ( request.checkNotModified( eTag ) ) {
+            return null; // 304
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl( CacheControl.noCache() );
+        if ( gzip ) {
+            return builder.header( HttpHeaders.CONTENT_ENCODING, ACCEPT_ENCODING_GZIP ).body( snapshot.gzipped() );
+        }
+        return builder.body( snapshot.bytes );
+    }
+
+    /**
+     * The snapshots are kept by the language which the dictionaries are expanded from rather than the requested one,
+     * and then by namespace, the empty namespace is the whole tree, and the namespaces without dictionaries are not
+     * kept, so that the snapshots are bounded by the languages and the dictionary keys. Each snapshot remembers the
+     * expanded map it is rendered from, which is replaced as a whole on every change, so a snapshot rendered before a
+     * change is rendered again on its next read, even if it is put after the change.
+     */
+    private Snapshot snapshot( String prefix ) {
+        if ( !cacheable ) {
+            Map<String, Object> expanded = prefix.isEmpty() ? dictManager.expandAll() : dictManager.expand( prefix );
+            return new Snapshot( null, serialize( expanded ) );
+        }
+        String [] resolved = new String[ 1 ];
+        Map<String, Object> tree = dictManager.expandAll( resolved );
+        String language = resolved[ 0 ] == null ? DEFAULT_LANGUAGE : resolved[ 0 ];
+        Map<String, Snapshot> namespaces = snapshots.get( language );
+        Snapshot snapshot = namespaces == null ? null : namespaces.get( prefix );
+        if ( snapshot == null || snapshot.tree != tree ) {
+            Map<String, Object> expanded = prefix.isEmpty() ? tree : dictManager.expand( prefix );
+            snapshot = new Snapshot( tree, serialize( expanded ) );
+            if ( prefix.isEmpty() || !expanded.isEmpty() ) {
+                snapshots.computeIfAbsent( language, lang -> new ConcurrentHashMap<>( 8 ) ).put( prefix, snapshot );
+                if ( bridge.isLogEnable() ) {
+                    bridge.printLog( "Rendered the expanded dictionaries \"{}\" of language \"{}\"", prefix, language );
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void evict( String language, Collection<String> keys ) {
+        if ( language == null ) {
+            snapshots.clear(); // All languages fall back to the default language
+            return;
+        }
+        String prefix = language + "_";
+        snapshots.keySet().removeIf( name -> name.equals( language ) || name.startsWith( prefix ) );
+    }
+
+    private byte [] serialize( Object expanded ) {
+        try {
+            return objectMapper.writeValueAsBytes( expanded );
+        } catch ( JsonProcessingException e ) {
+            throw new IllegalStateException( "Unable to serialize the expanded dictionaries", e );
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Map<String, Object> tree;
+        private final byte [] bytes;
+        private final String eTag;
+        private final String gzipETag;
+        private volatile byte [] gzipped;
+
+        private Snapshot( Map<String, Object> tree, byte [] bytes ) {
+            this.tree = tree;
+            this.bytes = bytes;
+            String digest = DigestUtils.md5DigestAsHex( bytes );
+            this.eTag = "\"" + digest + "\"";
+            this.gzipETag = "\"" + digest + "-gzip\"";
+        }
+
+        /**
+         * @return the compressed bytes, which are only compressed once if the snapshot is kept.
+         */
+        private byte [] gzipped() {
+            byte [] compressed = gzipped;
+            if ( compressed == null ) {
+                gzipped = compressed = gzip( bytes );
+            }
+            return compressed;
+        }
+
+        private static byte [] gzip( byte [] bytes ) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream( Math.max( 64, bytes.length >> 2 ) );
+            try ( GZIPOutputStream gzip = new GZIPOutputStream( output ) ) {
+                gzip.write( bytes );
+            } catch ( IOException e ) {
+                throw new UncheckedIOException( e );
+            }
+            return output.toByteArray();
+        }
+
+    }
+
+}
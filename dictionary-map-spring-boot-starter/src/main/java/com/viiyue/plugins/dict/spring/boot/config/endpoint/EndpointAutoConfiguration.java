@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.endpoint;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.Assert;
+
+import com.viiyue.plugins.dict.spring.boot.DictManager;
+import com.viiyue.plugins.dict.spring.boot.manager.core.AbstractDictManager;
+import com.viiyue.plugins.dict.spring.boot.metrics.DictionaryStatistics;
+
+/**
+ * Provides the dictionary endpoint in the Spring Boot Actuator environment, the statistics are only collected if the
+ * endpoint is available, and they are registered to the dictionary manager as a recorder and a change listener where
+ * the manager is built.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@ConditionalOnClass( { Endpoint.class, ConditionalOnAvailableEndpoint.class } )
+@ConditionalOnAvailableEndpoint( endpoint = DictionaryEndpoint.class )
+public class EndpointAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DictionaryStatistics dictionaryStatistics() {
+        return new DictionaryStatistics();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean( DictManager.class )
+    public DictionaryEndpoint dictionaryEndpoint( DictManager dictManager, DictionaryStatistics statistics ) {
+        Assert.isInstanceOf( AbstractDictManager.class, dictManager,
+                "The dictionary endpoint requires a dictionary manager extending AbstractDictManager" );
+        return new DictionaryEndpoint( ( AbstractDictManager<?> ) dictManager, statistics );
+    }
+
+}
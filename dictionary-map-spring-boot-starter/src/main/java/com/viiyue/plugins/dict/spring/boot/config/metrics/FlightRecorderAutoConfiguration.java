@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.metrics;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.viiyue.plugins.dict.spring.boot.metrics.FlightRecorderDictionaryRecorder;
+
+/**
+ * Provides dictionary events for Java Flight Recorder if the runtime supports custom events
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@ConditionalOnClass( name = "jdk.jfr.EventFactory" )
+@ConditionalOnProperty( prefix = "spring.dict.flight-recorder", name = "enable", matchIfMissing = true, havingValue = "true" )
+public class FlightRecorderAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FlightRecorderDictionaryRecorder flightRecorderDictionaryRecorder(
+            @Value( "${spring.dict.flight-recorder.lookup-threshold:1ms}" ) Duration lookupThreshold,
+            @Value( "${spring.dict.flight-recorder.load-threshold:0ms}" ) Duration loadThreshold ) {
+        return new FlightRecorderDictionaryRecorder( lookupThreshold.toNanos(), loadThreshold.toNanos() );
+    }
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.viiyue.plugins.dict.spring.boot.DictManager;
+import com.viiyue.plugins.dict.spring.boot.manager.core.CacheableResolver;
+import com.viiyue.plugins.dict.spring.boot.metrics.MicrometerDictionaryRecorder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Provides dictionary metrics in the Micrometer environment
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@ConditionalOnClass( MeterRegistry.class )
+@ConditionalOnProperty( prefix = "spring.dict.metrics", name = "enable", matchIfMissing = true, havingValue = "true" )
+public class MetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MicrometerDictionaryRecorder micrometerDictionaryRecorder( ObjectProvider<DictManager> dictManagerProvider ) {
+        return new MicrometerDictionaryRecorder( () -> {
+            DictManager dictManager = dictManagerProvider.getIfAvailable();
+            return dictManager instanceof CacheableResolver ? ( CacheableResolver<?> ) dictManager : null;
+        } );
+    }
+
+}
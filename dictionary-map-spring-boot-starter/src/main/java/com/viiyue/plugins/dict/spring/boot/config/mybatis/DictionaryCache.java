@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.mybatis;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+
+/**
+ * The second level cache decorator of MyBatis, which records the dictionary keys that each cached result depends on,
+ * and only evicts the cached results of the changed dictionary keys. If too many results depend on one key, it falls
+ * back to clearing the whole cache when that key changes.
+ * 
+ * <p>
+ * The dictionary keys of the running statement are bound to the thread, a dependency is only recorded when the lookup
+ * of the statement misses, and it takes effect when the transaction puts the result, or is dropped when the
+ * transaction releases the missed entry without a result.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class DictionaryCache implements Cache {
+
+    private static final int MAX_PENDING = 4096;
+    private static final int MAX_TRACKED = 8192;
+    private static final ThreadLocal<Set<String>> BOUND = new ThreadLocal<>();
+
+    private final Cache delegate;
+    /** Cache key -> the dependency recorded before the query */
+    private final Map<Object, Dependency> pendings = new HashMap<>( 64 );
+    /** Dictionary key -> cache keys of the cached results */
+    private final Map<String, Set<Object>> entries = new HashMap<>( 64 );
+    /** Whether some cached results depend on dictionaries that are no longer tracked */
+    private boolean untracked;
+    private long generation;
+
+    DictionaryCache( Cache delegate ) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Bind the dictionary keys of the statement to be queried to the current thread
+     * 
+     * @param keys the dictionary keys that the results of the statement depend on
+     * @return the previously bound keys, which must be restored by {@link #unbind(Set)} after the query.
+     */
+    static Set<String> bind( Set<String> keys ) {
+        Set<String> previous = BOUND.get();
+        BOUND.set( keys );
+        return previous;
+    }
+
+    /**
+     * Restore the dictionary keys bound before the query
+     * 
+     * @param previous the keys returned by {@link #bind(Set)}
+     */
+    static void unbind( Set<String> previous ) {
+        if ( previous == null ) {
+            BOUND.remove();
+        } else {
+            BOUND.set( previous );
+        }
+    }
+
+    /**
+     * Evict the cached results that depend on the dictionary keys
+     * 
+     * @param keys the changed dictionary keys, {@code null} means all keys.
+     */
+    void evict( Collection<String> keys ) {
+        Set<Object> evicted = new HashSet<>();
+        synchronized ( this ) {
+            generation ++;
+            if ( keys == null || untracked ) {
+                untracked = false;
+                entries.clear();
+                evicted = null;
+            } else {
+                for ( String dictKey : keys ) {
+                    Set<Object> cacheKeys = entries.remove( dictKey );
+                    if ( cacheKeys != null ) {
+                        evicted.addAll( cacheKeys );
+                    }
+                }
+            }
+        }
+        if ( evicted == null ) {
+            delegate.clear();
+        } else {
+            evicted.forEach( delegate::removeObject );
+        }
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public void putObject( Object key, Object value ) {
+        synchronized ( this ) {
+            Dependency dependency = pendings.remove( key );
+            // A null value only releases the missed entry
+            if ( dependency != null && value != null ) {
+                if ( dependency.generation != generation ) {
+                    return; // The dictionaries have been changed during the query
+                }
+                for ( String dictKey : dependency.keys ) {
+                    Set<Object> cacheKeys = entries.computeIfAbsent( dictKey, k -> new HashSet<>() );
+                    if ( cacheKeys.size() >= MAX_TRACKED ) {
+                        entries.remove( dictKey );
+                        untracked = true;
+                    } else {
+                        cacheKeys.add( key );
+                    }
+                }
+            }
+        }
+        delegate.putObject( key, value );
+    }
+
+    @Override
+    public Object getObject( Object key ) {
+        Object value = delegate.getObject( key );
+        Set<String> keys = BOUND.get();
+        if ( value == null && keys != null ) {
+            synchronized ( this ) {
+                if ( pendings.size() >= MAX_PENDING ) {
+                    pendings.clear();
+                    untracked = true;
+                }
+                pendings.put( key, new Dependency( keys, generation ) );
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object removeObject( Object key ) {
+        synchronized ( this ) {
+            pendings.remove( key ); // The transaction is rolled back
+        }
+        return delegate.removeObject( key );
+    }
+
+    @Override
+    public void clear() {
+        synchronized ( this ) {
+            entries.clear();
+            untracked = false;
+        }
+        delegate.clear();
+    }
+
+    @Override
+    public int getSize() {
+        return delegate.getSize();
+    }
+
+    @Override
+    public ReadWriteLock getReadWriteLock() {
+        return delegate.getReadWriteLock();
+    }
+
+    private static final class Dependency {
+
+        private final Set<String> keys;
+        private final long generation;
+
+        private Dependency( Set<String> keys, long generation ) {
+            this.keys = keys;
+            this.generation = generation;
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.mybatis;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryIndex;
+
+/**
+ * The cursor that fetches the elements in chunks and resolves the dictionary placeholders of each chunk at once, the
+ * code tables are pinned when first used, so the whole stream is resolved against the same snapshot.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class DictionaryCursor<T> implements Cursor<T> {
+
+    private final Cursor<T> delegate;
+    private final DictionaryPlan plan;
+    private final DictionaryPostProcessor processor;
+    private final List<T> chunk;
+    private final int chunkSize;
+    private final Map<String, DictionaryIndex> indexes = new HashMap<>( 8 );
+    private int position;
+
+    DictionaryCursor( Cursor<T> delegate, DictionaryPlan plan, DictionaryPostProcessor processor, int chunkSize ) {
+        this.delegate = delegate;
+        this.plan = plan;
+        this.processor = processor;
+        this.chunkSize = Math.max( 1, chunkSize );
+        this.chunk = new ArrayList<>( this.chunkSize );
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public boolean isConsumed() {
+        return delegate.isConsumed() && position >= chunk.size();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+        return delegate.getCurrentIndex() - ( chunk.size() - position );
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> iterator = delegate.iterator();
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                if ( position < chunk.size() ) {
+                    return true;
+                }
+                chunk.clear();
+                position = 0;
+                while ( chunk.size() < chunkSize && iterator.hasNext() ) {
+                    chunk.add( iterator.next() );
+                }
+                processor.process( plan, chunk, indexes );
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if ( !hasNext() ) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.get( position ++ );
+            }
+
+        };
+    }
+
+}
@@ -15,27 +15,25 @@
  */
 package com.viiyue.plugins.dict.spring.boot.config.mybatis;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
-import org.apache.ibatis.mapping.ResultMap;
-import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.Intercepts;
 import org.apache.ibatis.plugin.Invocation;
 import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
-import org.apache.ibatis.type.TypeHandler;
 
-import com.viiyue.plugins.dict.spring.boot.annotation.Dict;
-import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.DictManager;
 
 /**
  * Interceptor for mybatis
@@ -65,32 +63,91 @@ import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
 })
 public class DictionaryInterceptor implements Interceptor {
     
-    private static final Map<Class<?>, Map<String, String>> caches = new ConcurrentHashMap<>( 128 ); 
+    private final Map<String, DictionaryPlan> plans = new ConcurrentHashMap<>( 128 );
+    private final DictionaryPostProcessor processor;
+    private final int chunkSize;
+    private volatile Configuration bound;
+
+    public DictionaryInterceptor() {
+        this( null, 0 );
+    }
+
+    /**
+     * @param dictManager the dictionary manager used to resolve the whole result set at once after the query, the
+     *                    dictionaries are resolved row by row while mapping the result set if it is {@code null}.
+     * @param chunkSize   the number of rows resolved at once for cursors and result handlers
+     */
+    public DictionaryInterceptor( DictManager dictManager, int chunkSize ) {
+        this.processor = dictManager == null ? null : new DictionaryPostProcessor( dictManager );
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Bind the dictionary keys to the result mappings of the configuration once, the queries wait until it is done.
+     * 
+     * @param configuration the mybatis configuration
+     * @see DictionaryPlan#bind(Configuration)
+     */
+    void bind( Configuration configuration ) {
+        if ( bound != configuration ) {
+            synchronized ( this ) {
+                if ( bound != configuration ) {
+                    DictionaryPlan.bind( configuration );
+                    bound = configuration;
+                }
+            }
+        }
+    }
 
     @Override
     public Object intercept( Invocation invocation ) throws Throwable {
-        MappedStatement statement = ( MappedStatement ) invocation.getArgs()[ 0 ];
-        for ( ResultMap resultMap : statement.getResultMaps() ) {
-            for ( ResultMapping mapping : resultMap.getPropertyResultMappings() ) {
-                if ( Dictionary.class == mapping.getJavaType() ) {
-                    TypeHandler<?> typeHandler = mapping.getTypeHandler();
-                    if ( typeHandler instanceof DictionaryTypeHandler ) {
-                        String column = mapping.getColumn();
-                        Class<?> beanType = resultMap.getType();
-                        Map<String, String> cache = caches.computeIfAbsent( beanType, type -> new HashMap<>( type.getDeclaredFields().length ) );
-                        if ( !cache.containsKey( column ) ) {
-                            Field field = beanType.getDeclaredField( mapping.getProperty() );
-                            Dict dict = field.getAnnotation( Dict.class );
-                            cache.put( column, dict == null ? null : dict.value() );
-                        }
-                        if ( cache != null ) {
-                            ( ( DictionaryTypeHandler ) typeHandler ).setCacheKeys( cache );
-                        }
-                    }
-                }
+        Object [] args = invocation.getArgs();
+        MappedStatement statement = ( MappedStatement ) args[ 0 ];
+        bind( statement.getConfiguration() ); // Registered without the auto configuration
+        DictionaryPlan plan = plans.get( statement.getId() );
+        if ( plan == null ) {
+            plan = plans.computeIfAbsent( statement.getId(), id -> DictionaryPlan.build( statement ) );
+        }
+        if ( plan.isEmpty() ) {
+            return invocation.proceed();
+        }
+        
+        // Let the second level cache record the dictionaries that the entry depends on if the lookup misses
+        if ( args.length > 3 && args[ 3 ] == null && statement.isUseCache() && statement.getCache() instanceof DictionaryCache ) {
+            Set<String> previous = DictionaryCache.bind( plan.keys() );
+            try {
+                return proceed( invocation, plan );
+            } finally {
+                DictionaryCache.unbind( previous );
             }
         }
-        return invocation.proceed();
+        return proceed( invocation, plan );
+    }
+
+    @SuppressWarnings( { "rawtypes", "unchecked" } )
+    private Object proceed( Invocation invocation, DictionaryPlan plan ) throws Throwable {
+        Object [] args = invocation.getArgs();
+        if ( processor == null ) {
+            return invocation.proceed();
+        }
+        
+        // Cursor<E> queryCursor(MappedStatement, Object, RowBounds)
+        if ( args.length == 3 ) {
+            return new DictionaryCursor<>( ( Cursor ) invocation.proceed(), plan, processor, chunkSize );
+        }
+        
+        // List<E> query(MappedStatement, Object, RowBounds, ResultHandler, ...)
+        DictionaryResultHandler<?> handler = null;
+        if ( args[ 3 ] != null ) {
+            args[ 3 ] = handler = new DictionaryResultHandler<>( ( ResultHandler ) args[ 3 ], plan, processor, chunkSize );
+        }
+        Object result = invocation.proceed();
+        if ( handler != null ) {
+            handler.flush(); // The last chunk
+        } else if ( result instanceof List ) {
+            processor.process( plan, ( List<?> ) result );
+        }
+        return result;
     }
 
 }
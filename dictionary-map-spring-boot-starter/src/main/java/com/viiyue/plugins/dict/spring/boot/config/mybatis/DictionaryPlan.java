@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.mybatis;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+import org.springframework.util.ReflectionUtils;
+
+import com.viiyue.plugins.dict.spring.boot.annotation.Dict;
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+
+/**
+ * The immutable dictionary plan of a mapped statement, which is computed only once for each statement. The result
+ * mappings are bound to the {@link DictionaryTypeHandler}s carrying the dictionary key of the {@link Dict} annotation
+ * once before any query runs( see {@link #bind(Configuration)} ), so the type handler does not need any thread-local
+ * state and the plan never modifies the shared mybatis objects.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class DictionaryPlan {
+
+    static final DictionaryPlan EMPTY = new DictionaryPlan( null, emptyList(), emptySet() );
+
+    private final Configuration configuration;
+    private final List<Node> nodes;
+    private final Set<String> keys;
+
+    private DictionaryPlan( Configuration configuration, List<Node> nodes, Set<String> keys ) {
+        this.configuration = configuration;
+        this.nodes = nodes;
+        this.keys = keys;
+    }
+
+    boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    Configuration configuration() {
+        return configuration;
+    }
+
+    /**
+     * @return all dictionary keys which the results of the statement depend on
+     */
+    Set<String> keys() {
+        return keys;
+    }
+
+    /**
+     * Find the result map node of the result object
+     * 
+     * @param result the result object
+     * @return the node of the result object, or {@code null} if the result has no dictionary.
+     */
+    Node nodeOf( Object result ) {
+        for ( Node node : nodes ) {
+            if ( node.type.isInstance( result ) ) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    static DictionaryPlan build( MappedStatement statement ) {
+        Configuration configuration = statement.getConfiguration();
+        Map<String, Node> visited = new HashMap<>( 8 );
+        List<Node> nodes = new ArrayList<>( 1 );
+        Set<String> keys = new HashSet<>( 8 );
+        for ( ResultMap resultMap : statement.getResultMaps() ) {
+            Node node = build( configuration, resultMap, visited, keys );
+            if ( node != null ) {
+                nodes.add( node );
+            }
+        }
+        return nodes.isEmpty() ? EMPTY : new DictionaryPlan( configuration, unmodifiableList( nodes ), unmodifiableSet( keys ) );
+    }
+
+    private static Node build( Configuration configuration, ResultMap resultMap, Map<String, Node> visited,
+            Set<String> keys ) {
+        if ( visited.containsKey( resultMap.getId() ) ) {
+            return visited.get( resultMap.getId() );
+        }
+        Node node = new Node( resultMap.getType() );
+        visited.put( resultMap.getId(), node ); // Recursive result maps
+        for ( ResultMapping mapping : resultMap.getPropertyResultMappings() ) {
+            String property = mapping.getProperty();
+            if ( property == null ) {
+                continue;
+            }
+            TypeHandler<?> typeHandler = mapping.getTypeHandler();
+            if ( typeHandler instanceof DictionaryTypeHandler ) {
+                String key = ( ( DictionaryTypeHandler ) typeHandler ).getKey();
+                if ( key != null ) {
+                    node.properties.add( property );
+                    keys.add( key );
+                }
+            } else if ( mapping.getNestedResultMapId() != null && configuration.hasResultMap( mapping.getNestedResultMapId() ) ) {
+                Node nested = build( configuration, configuration.getResultMap( mapping.getNestedResultMapId() ), visited, keys );
+                if ( nested != null ) {
+                    node.nested.put( property, nested );
+                }
+            } else if ( mapping.getNestedQueryId() != null && configuration.hasStatement( mapping.getNestedQueryId(), false ) ) {
+                // The nested selects are resolved eagerly, only their keys are recorded for the second level cache
+                for ( ResultMap nested : configuration.getMappedStatement( mapping.getNestedQueryId(), false ).getResultMaps() ) {
+                    build( configuration, nested, visited, keys );
+                }
+            }
+        }
+        if ( node.properties.isEmpty() && node.nested.isEmpty() ) {
+            visited.put( resultMap.getId(), null );
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Bind the dictionary key of the {@link Dict} annotation to the type handler of every dictionary result mapping of
+     * the configuration, which must be done before the mapped statements are used because the result mappings are
+     * shared by all queries. The result maps of the nested selects, including the lazy loaded ones, are bound to eager
+     * type handlers, because they are mapped outside the interceptor where the placeholders cannot be resolved.
+     * 
+     * @param configuration the mybatis configuration
+     */
+    static void bind( Configuration configuration ) {
+        Set<ResultMap> resultMaps = newIdentitySet();
+        for ( Object value : configuration.getResultMaps() ) {
+            if ( value instanceof ResultMap ) { // Skip the ambiguity placeholders of the short names
+                resultMaps.add( ( ResultMap ) value );
+            }
+        }
+        for ( Object value : configuration.getMappedStatements() ) {
+            if ( value instanceof MappedStatement ) {
+                resultMaps.addAll( ( ( MappedStatement ) value ).getResultMaps() );
+            }
+        }
+        
+        // The result mappings reached by nested selects, the mappings may be shared with the extended result maps
+        Set<ResultMap> nestedMaps = newIdentitySet();
+        for ( ResultMap resultMap : resultMaps ) {
+            for ( ResultMapping mapping : resultMap.getPropertyResultMappings() ) {
+                String queryId = mapping.getNestedQueryId();
+                if ( queryId != null && configuration.hasStatement( queryId, false ) ) {
+                    for ( ResultMap nested : configuration.getMappedStatement( queryId, false ).getResultMaps() ) {
+                        collectNested( configuration, nested, nestedMaps );
+                    }
+                }
+            }
+        }
+        Set<ResultMapping> eagerMappings = newIdentitySet();
+        nestedMaps.forEach( resultMap -> eagerMappings.addAll( resultMap.getPropertyResultMappings() ) );
+        
+        for ( ResultMap resultMap : resultMaps ) {
+            for ( ResultMapping mapping : resultMap.getPropertyResultMappings() ) {
+                TypeHandler<?> typeHandler = mapping.getTypeHandler();
+                if ( mapping.getProperty() == null || Dictionary.class != mapping.getJavaType()
+                        || !( typeHandler instanceof DictionaryTypeHandler ) ) {
+                    continue;
+                }
+                DictionaryTypeHandler handler = ( DictionaryTypeHandler ) typeHandler;
+                Field field = ReflectionUtils.findField( resultMap.getType(), mapping.getProperty() );
+                Dict dict = field == null ? null : field.getAnnotation( Dict.class );
+                if ( dict != null && handler.getKey() == null ) {
+                    boolean deferred = handler.isDeferred() && !eagerMappings.contains( mapping );
+                    SystemMetaObject.forObject( mapping ).setValue( "typeHandler", handler.withKey( dict.value(), deferred ) );
+                }
+            }
+        }
+    }
+
+    private static void collectNested( Configuration configuration, ResultMap resultMap, Set<ResultMap> collected ) {
+        if ( !collected.add( resultMap ) ) {
+            return;
+        }
+        for ( ResultMapping mapping : resultMap.getPropertyResultMappings() ) {
+            String nestedId = mapping.getNestedResultMapId();
+            if ( nestedId != null && configuration.hasResultMap( nestedId ) ) {
+                collectNested( configuration, configuration.getResultMap( nestedId ), collected );
+            }
+        }
+    }
+
+    private static <T> Set<T> newIdentitySet() {
+        return Collections.newSetFromMap( new IdentityHashMap<>() );
+    }
+
+    static final class Node {
+
+        final Class<?> type;
+        final List<String> properties = new ArrayList<>( 4 );
+        final Map<String, Node> nested = new HashMap<>( 4 );
+
+        private Node( Class<?> type ) {
+            this.type = type;
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.mybatis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+import com.viiyue.plugins.dict.spring.boot.DictManager;
+import com.viiyue.plugins.dict.spring.boot.config.mybatis.DictionaryPlan.Node;
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryIndex;
+
+/**
+ * Replace the {@link UnresolvedDictionary} placeholders of the mapped results, each distinct dictionary key is only
+ * read from the dictionary manager once.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class DictionaryPostProcessor {
+
+    private final DictManager dictManager;
+
+    DictionaryPostProcessor( DictManager dictManager ) {
+        this.dictManager = dictManager;
+    }
+
+    /**
+     * Resolve all dictionary placeholders of the results
+     * 
+     * @param plan    the dictionary plan of the mapped statement
+     * @param results the mapped results
+     */
+    void process( DictionaryPlan plan, Collection<?> results ) {
+        process( plan, results, new HashMap<>( 8 ) );
+    }
+
+    /**
+     * Resolve all dictionary placeholders of the results against the pinned code tables, the code table of each key is
+     * only loaded once and then reused by the following chunks of the same stream.
+     * 
+     * @param plan    the dictionary plan of the mapped statement
+     * @param results the mapped results
+     * @param indexes the pinned code tables of the stream
+     */
+    void process( DictionaryPlan plan, Collection<?> results, Map<String, DictionaryIndex> indexes ) {
+        if ( results == null || results.isEmpty() ) {
+            return;
+        }
+        Configuration configuration = plan.configuration();
+        List<Pending> pendings = new ArrayList<>( results.size() );
+        // The nested objects may be shared or link back to their ancestors in circular mappings
+        Set<Object> visited = Collections.newSetFromMap( new IdentityHashMap<>( results.size() << 1 ) );
+        for ( Object result : results ) {
+            if ( result != null ) {
+                Node node = plan.nodeOf( result );
+                if ( node != null ) {
+                    collect( configuration, node, result, pendings, visited );
+                }
+            }
+        }
+        if ( pendings.isEmpty() ) {
+            return;
+        }
+        for ( Pending pending : pendings ) {
+            UnresolvedDictionary unresolved = pending.unresolved;
+            DictionaryIndex index = indexes.computeIfAbsent( unresolved.getKey(), dictManager::index );
+            pending.target.setValue( pending.property, index.match( unresolved.getCode() ) );
+        }
+    }
+
+    private void collect( Configuration configuration, Node node, Object result, List<Pending> pendings,
+            Set<Object> visited ) {
+        if ( !visited.add( result ) ) {
+            return;
+        }
+        MetaObject target = configuration.newMetaObject( result );
+        for ( String property : node.properties ) {
+            Object value = target.getValue( property );
+            if ( value instanceof UnresolvedDictionary ) {
+                pendings.add( new Pending( target, property, ( UnresolvedDictionary ) value ) );
+            }
+        }
+        for ( Map.Entry<String, Node> entry : node.nested.entrySet() ) {
+            Object value = target.getValue( entry.getKey() );
+            if ( value instanceof Collection ) {
+                for ( Object element : ( Collection<?> ) value ) {
+                    if ( element != null ) {
+                        collect( configuration, entry.getValue(), element, pendings, visited );
+                    }
+                }
+            } else if ( value != null ) {
+                collect( configuration, entry.getValue(), value, pendings, visited );
+            }
+        }
+    }
+
+    private static final class Pending {
+
+        private final MetaObject target;
+        private final String property;
+        private final UnresolvedDictionary unresolved;
+
+        private Pending( MetaObject target, String property, UnresolvedDictionary unresolved ) {
+            this.target = target;
+            this.property = property;
+            this.unresolved = unresolved;
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.mybatis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryIndex;
+
+/**
+ * The result handler that buffers the results in chunks, resolves the dictionary placeholders of each chunk at once
+ * and then hands the results to the original result handler. The code tables are pinned when first used, so the whole
+ * query is resolved against the same snapshot.
+ * 
+ * <p>
+ * The original result handler only sees a chunk after it is full, so when it calls {@link ResultContext#stop()} the
+ * rest of the chunk is dropped, and up to chunk size rows have already been read from the result set beyond the last
+ * handed row.
+ * </p>
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class DictionaryResultHandler<T> implements ResultHandler<T>, ResultContext<T> {
+
+    private final ResultHandler<T> delegate;
+    private final DictionaryPlan plan;
+    private final DictionaryPostProcessor processor;
+    private final List<T> chunk;
+    private final int chunkSize;
+    private final Map<String, DictionaryIndex> indexes = new HashMap<>( 8 );
+    private ResultContext<? extends T> context;
+    private T current;
+    private int count;
+    private boolean stopped;
+
+    DictionaryResultHandler( ResultHandler<T> delegate, DictionaryPlan plan, DictionaryPostProcessor processor,
+            int chunkSize ) {
+        this.delegate = delegate;
+        this.plan = plan;
+        this.processor = processor;
+        this.chunkSize = Math.max( 1, chunkSize );
+        this.chunk = new ArrayList<>( this.chunkSize );
+    }
+
+    @Override
+    public void handleResult( ResultContext<? extends T> context ) {
+        this.context = context;
+        chunk.add( context.getResultObject() );
+        if ( chunk.size() >= chunkSize ) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand the buffered results to the original result handler
+     */
+    void flush() {
+        if ( chunk.isEmpty() ) {
+            return;
+        }
+        processor.process( plan, chunk, indexes );
+        for ( T result : chunk ) {
+            if ( stopped ) {
+                break;
+            }
+            this.current = result;
+            this.count ++;
+            delegate.handleResult( this );
+        }
+        chunk.clear();
+    }
+
+    @Override
+    public T getResultObject() {
+        return current;
+    }
+
+    @Override
+    public int getResultCount() {
+        return count;
+    }
+
+    @Override
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Stop handing the results and stop reading the result set, the rows buffered in the current chunk are dropped.
+     */
+    @Override
+    public void stop() {
+        this.stopped = true;
+        if ( context != null ) {
+            context.stop();
+        }
+    }
+
+}
@@ -19,13 +19,11 @@ import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Map;
 
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 
 import com.viiyue.plugins.dict.spring.boot.DictManager;
-import com.viiyue.plugins.dict.spring.boot.function.SqlProvider;
 import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
 
 /**
@@ -36,15 +34,56 @@ import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
  */
 public class DictionaryTypeHandler extends BaseTypeHandler<Dictionary> {
 
-    private static final ThreadLocal<Map<String, String>> cachings = new ThreadLocal<>();
     private final DictManager dictManager;
+    private final boolean deferred;
+    private final String key;
     
     public DictionaryTypeHandler( DictManager dictManager ) {
+        this( dictManager, false );
+    }
+
+    /**
+     * @param dictManager the dictionary manager
+     * @param deferred    whether to return placeholders which are resolved by {@link DictionaryInterceptor} after the
+     *                    whole result set has been mapped
+     */
+    public DictionaryTypeHandler( DictManager dictManager, boolean deferred ) {
+        this( dictManager, deferred, null );
+    }
+
+    private DictionaryTypeHandler( DictManager dictManager, boolean deferred, String key ) {
         this.dictManager = dictManager;
+        this.deferred = deferred;
+        this.key = key;
+    }
+
+    /**
+     * Create a type handler bound to the dictionary key of one result mapping
+     * 
+     * @param key the dictionary key
+     * @return the keyed type handler
+     */
+    public DictionaryTypeHandler withKey( String key ) {
+        return withKey( key, deferred );
+    }
+
+    /**
+     * Create a type handler bound to the dictionary key of one result mapping
+     * 
+     * @param key      the dictionary key
+     * @param deferred whether to return placeholders, the result mappings of nested selects must be resolved eagerly.
+     * @return the keyed type handler
+     */
+    public DictionaryTypeHandler withKey( String key, boolean deferred ) {
+        return new DictionaryTypeHandler( dictManager, deferred, key );
+    }
+
+    public String getKey() {
+        return key;
     }
 
-    public void setCacheKeys( Map<String, String> descriptor ) {
-        cachings.set( descriptor );
+    public boolean isDeferred() {
+        return deferred;
     }
 
     @Override
@@ -55,34 +94,33 @@ public class DictionaryTypeHandler extends BaseTypeHandler<Dictionary> {
 
     @Override
     public Dictionary getNullableResult( ResultSet rs, String columnName ) throws SQLException {
-        return getValue( columnName, rs.wasNull() ? null : rs::getInt );
+        if ( key == null ) {
+            return null;
+        }
+        int code = rs.getInt( columnName );
+        return rs.wasNull() ? null : resolve( code );
     }
 
     @Override
     public Dictionary getNullableResult( ResultSet rs, int columnIndex ) throws SQLException {
-        String column = rs.getMetaData().getColumnName( columnIndex );
-        return getValue( column, rs.wasNull() ? null : rs::getInt );
+        if ( key == null ) {
+            return null;
+        }
+        int code = rs.getInt( columnIndex );
+        return rs.wasNull() ? null : resolve( code );
     }
 
     @Override
     public Dictionary getNullableResult( CallableStatement cs, int columnIndex ) throws SQLException {
-        String column = cs.getMetaData().getColumnName( columnIndex );
-        return getValue( column, cs.wasNull() ? null : cs::getInt );
-    }
-
-    private <V> Dictionary getValue( String column, SqlProvider<String, Integer> provider ) throws SQLException {
-        if ( provider == null ) {
+        if ( key == null ) {
             return null;
         }
-        Map<String, String> cache = cachings.get();
-        if ( cache != null ) {
-            String cacheKey = cache.get( column );
-            if ( cacheKey != null ) {
-                Integer codeValue = provider.apply( column );
-                return dictManager.match( cacheKey, codeValue );
-            }
-        }
-        return null;
+        int code = cs.getInt( columnIndex );
+        return cs.wasNull() ? null : resolve( code );
+    }
+
+    private Dictionary resolve( int code ) {
+        return deferred ? new UnresolvedDictionary( key, code ) : dictManager.index( key ).match( code );
     }
 
 }
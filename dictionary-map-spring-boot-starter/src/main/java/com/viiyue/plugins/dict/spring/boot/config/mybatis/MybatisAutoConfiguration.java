@@ -15,6 +15,14 @@
  */
 package com.viiyue.plugins.dict.spring.boot.config.mybatis;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -24,6 +32,8 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 
 import com.viiyue.plugins.dict.spring.boot.DictManager;
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
+import com.viiyue.plugins.dict.spring.boot.manager.core.AbstractDictManager;
 
 /**
  * Provides dictionary type conversion support in the mybatis environment
@@ -36,10 +46,13 @@ public class MybatisAutoConfiguration implements InitializingBean {
 
     private final DictManager dictManager;
     private final SqlSessionFactory factory;
+    private final DictionaryProperties props;
 
     public MybatisAutoConfiguration( 
+            DictionaryProperties props,
             ObjectProvider<SqlSessionFactory> sqlSessionProvider, 
             ObjectProvider<DictManager> dictManagerProvider ) {
+        this.props = props;
         this.factory = sqlSessionProvider.getIfAvailable();
         this.dictManager = dictManagerProvider.getIfAvailable();
     }
@@ -49,9 +62,49 @@ public class MybatisAutoConfiguration implements InitializingBean {
         if ( factory != null ) {
             Configuration configuration = factory.getConfiguration();
             TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
-            typeHandlerRegistry.register( new DictionaryTypeHandler( dictManager ) );
-            configuration.addInterceptor( new DictionaryInterceptor() );
+            boolean deferred = props.isBatchResolve();
+            typeHandlerRegistry.register( new DictionaryTypeHandler( dictManager, deferred ) );
+            DictionaryInterceptor interceptor = new DictionaryInterceptor( deferred ? dictManager : null, props.getChunkSize() );
+            interceptor.bind( configuration ); // Before any query uses the result mappings
+            configuration.addInterceptor( interceptor );
+            
+            // Evict the second level cache entries when the dictionaries they depend on are changed
+            List<DictionaryCache> caches = decorateCaches( configuration );
+            if ( !caches.isEmpty() && dictManager instanceof AbstractDictManager ) {
+                ( ( AbstractDictManager ) dictManager ).addListener( ( language, keys ) -> {
+                    caches.forEach( cache -> cache.evict( keys ) );
+                } );
+            }
+        }
+    }
+    
+    /**
+     * Decorate the caches used by the statements with dictionaries, the decorator replaces the cache of every statement
+     * sharing it, including the statements which flush it, because the transactional caches are held by cache instance.
+     */
+    private static List<DictionaryCache> decorateCaches( Configuration configuration ) {
+        List<MappedStatement> statements = new ArrayList<>();
+        Map<Cache, DictionaryCache> decorated = new IdentityHashMap<>();
+        for ( Object value : configuration.getMappedStatements() ) {
+            if ( !( value instanceof MappedStatement ) ) {
+                continue; // Ambiguity placeholders of the short names
+            }
+            MappedStatement statement = ( MappedStatement ) value;
+            Cache cache = statement.getCache();
+            if ( cache != null ) {
+                statements.add( statement );
+                if ( statement.isUseCache() && !DictionaryPlan.build( statement ).isEmpty() ) {
+                    decorated.computeIfAbsent( cache, DictionaryCache::new );
+                }
+            }
+        }
+        for ( MappedStatement statement : statements ) {
+            DictionaryCache wrapped = decorated.get( statement.getCache() );
+            if ( wrapped != null ) {
+                SystemMetaObject.forObject( statement ).setValue( "cache", wrapped );
+            }
         }
+        return new ArrayList<>( decorated.values() );
     }
 
 }
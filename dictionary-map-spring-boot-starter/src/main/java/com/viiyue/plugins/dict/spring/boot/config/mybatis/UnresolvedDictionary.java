@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.mybatis;
+
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+
+/**
+ * The placeholder returned by the type handler in batch resolve mode, which only carries the dictionary key and the
+ * code read from the result set, and is replaced after the whole result set has been mapped.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class UnresolvedDictionary extends Dictionary {
+
+    private static final long serialVersionUID = 2748405126427364218L;
+
+    UnresolvedDictionary( String key, Integer code ) {
+        setKey( key );
+        setCode( code );
+    }
+
+}
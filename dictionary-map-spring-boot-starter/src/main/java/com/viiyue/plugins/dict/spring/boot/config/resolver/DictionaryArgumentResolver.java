@@ -15,7 +15,13 @@
  */
 package com.viiyue.plugins.dict.spring.boot.config.resolver;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
@@ -38,6 +44,7 @@ public class DictionaryArgumentResolver implements HandlerMethodArgumentResolver
 
     private final DictManager dictManager;
     private final DictionaryProperties props;
+    private final Map<MethodParameter, Binding> bindings = new ConcurrentHashMap<>( 64 );
 
     public DictionaryArgumentResolver( DictManager dictManager, DictionaryProperties props ) {
         this.dictManager = dictManager;
@@ -46,8 +53,7 @@ public class DictionaryArgumentResolver implements HandlerMethodArgumentResolver
 
     @Override
     public boolean supportsParameter( MethodParameter parameter ) {
-        return Dictionary.class.equals( parameter.getParameterType() )
-                && parameter.hasParameterAnnotation( Dict.class );
+        return binding( parameter ) != Binding.UNSUPPORTED;
     }
 
     @Override
@@ -57,15 +63,34 @@ public class DictionaryArgumentResolver implements HandlerMethodArgumentResolver
         NativeWebRequest webRequest, 
         WebDataBinderFactory binderFactory ) throws Exception {
         
-        String paramName = parameter.getParameterName();
-        String paramValue = webRequest.getParameter( paramName );
+        Binding binding = binding( parameter );
+        if ( !binding.multiple ) {
+            return resolve( binding.key, webRequest.getParameter( binding.name ) );
+        }
+        
+        // ?gender=1&gender=2 or ?gender=1,2
+        String [] paramValues = webRequest.getParameterValues( binding.name );
+        if ( paramValues == null ) {
+            return null;
+        }
+        List<Dictionary> dicts = new ArrayList<>( paramValues.length );
+        for ( String paramValue : paramValues ) {
+            for ( String value : StringUtils.commaDelimitedListToStringArray( paramValue ) ) {
+                Dictionary dict = resolve( binding.key, value.trim() );
+                if ( dict != null ) {
+                    dicts.add( dict );
+                }
+            }
+        }
+        return dicts;
+    }
+    
+    private Dictionary resolve( String cacheKey, String paramValue ) {
         if ( StringUtils.isEmpty( paramValue ) ) {
             return null;
         }
         
         Integer code = Helper.toInt( paramValue );
-        String cacheKey = parameter.getParameterAnnotation( Dict.class ).value();
-        
         if ( code == null ) {
             if ( props.isLogEnable() ) {
                 props.printLog( "Convert the string value \"{}\" to a dictionary object", paramValue );
@@ -78,5 +103,48 @@ public class DictionaryArgumentResolver implements HandlerMethodArgumentResolver
         }
         return dictManager.match( cacheKey, code ); // Dictionary code
     }
+    
+    private Binding binding( MethodParameter parameter ) {
+        Binding binding = bindings.get( parameter );
+        if ( binding == null ) {
+            binding = bindings.computeIfAbsent( parameter, Binding::of );
+        }
+        return binding;
+    }
+    
+    /**
+     * The binding metadata of a method parameter, which is resolved once per parameter
+     */
+    private static final class Binding {
+        
+        private static final Binding UNSUPPORTED = new Binding( null, null, false );
+        
+        private final String key;
+        private final String name;
+        private final boolean multiple; // List<Dictionary>
+        
+        private Binding( String key, String name, boolean multiple ) {
+            this.key = key;
+            this.name = name;
+            this.multiple = multiple;
+        }
+        
+        private static Binding of( MethodParameter parameter ) {
+            Dict dict = parameter.getParameterAnnotation( Dict.class );
+            if ( dict == null ) {
+                return UNSUPPORTED;
+            }
+            Class<?> parameterType = parameter.getParameterType();
+            if ( Dictionary.class.equals( parameterType ) ) {
+                return new Binding( dict.value(), parameter.getParameterName(), false );
+            }
+            if ( parameterType.isAssignableFrom( ArrayList.class ) 
+                    && Dictionary.class.equals( ResolvableType.forMethodParameter( parameter ).asCollection().resolveGeneric() ) ) {
+                return new Binding( dict.value(), parameter.getParameterName(), true );
+            }
+            return UNSUPPORTED;
+        }
+        
+    }
 
 }
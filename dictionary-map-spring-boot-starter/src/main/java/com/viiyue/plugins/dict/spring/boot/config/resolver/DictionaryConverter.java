@@ -15,9 +15,10 @@
  */
 package com.viiyue.plugins.dict.spring.boot.config.resolver;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalGenericConverter;
@@ -35,6 +36,10 @@ import com.viiyue.plugins.dict.spring.boot.utils.Helper;
  */
 public class DictionaryConverter implements ConditionalGenericConverter {
 
+    private static final Set<ConvertiblePair> CONVERTIBLE_PAIRS = Collections.unmodifiableSet( new HashSet<>( Arrays.asList( 
+        new ConvertiblePair( String.class, Dictionary.class ), 
+        new ConvertiblePair( Integer.class, Dictionary.class ) ) ) );
+
     private final DictManager dictManager;
     
     public DictionaryConverter( DictManager dictManager ) {
@@ -43,12 +48,7 @@ public class DictionaryConverter implements ConditionalGenericConverter {
 
     @Override
     public Set<ConvertiblePair> getConvertibleTypes() {
-        Set<ConvertiblePair> convertiblePairs = Collections.newSetFromMap( new ConcurrentHashMap<>() );
-        ConvertiblePair string2Dictionary = new ConvertiblePair( String.class, Dictionary.class );
-        ConvertiblePair integer2Dictionary = new ConvertiblePair( Integer.class, Dictionary.class );
-        convertiblePairs.add( string2Dictionary );
-        convertiblePairs.add( integer2Dictionary );
-        return convertiblePairs;
+        return CONVERTIBLE_PAIRS;
     }
 
     @Override
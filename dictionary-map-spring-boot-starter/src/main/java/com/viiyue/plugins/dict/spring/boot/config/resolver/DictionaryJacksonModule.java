@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.config.resolver;
+
+import java.util.List;
+import java.util.ListIterator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.viiyue.plugins.dict.spring.boot.DictContext;
+import com.viiyue.plugins.dict.spring.boot.annotation.Dict;
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+
+/**
+ * Adds a virtual {@code <field>Text} property next to each {@link Dict @Dict} annotated {@code Integer} or
+ * {@code String} property in {@code Jackson} serialization, whose value is the text of the matched dictionary. The
+ * property writers are built once per bean type, and the dictionaries are matched through the dictionary index.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@ConditionalOnClass( ObjectMapper.class )
+@ConditionalOnProperty( prefix = "spring.dict.jackson", name = "enable", matchIfMissing = true, havingValue = "true" )
+public class DictionaryJacksonModule extends SimpleModule {
+
+    private static final long serialVersionUID = 4329064541709183740L;
+    private static final String SUFFIX = "Text";
+
+    public DictionaryJacksonModule() {
+        super( DictionaryJacksonModule.class.getSimpleName() );
+        setSerializerModifier( new DictionarySerializerModifier() );
+    }
+
+    private static final class DictionarySerializerModifier extends BeanSerializerModifier {
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties( SerializationConfig config, BeanDescription beanDesc,
+                List<BeanPropertyWriter> beanProperties ) {
+            for ( ListIterator<BeanPropertyWriter> iterator = beanProperties.listIterator(); iterator.hasNext(); ) {
+                BeanPropertyWriter writer = iterator.next();
+                Dict dict = writer.getAnnotation( Dict.class );
+                if ( dict == null || !isSupported( writer.getType().getRawClass() ) ) {
+                    continue;
+                }
+                String name = writer.getName() + SUFFIX;
+                if ( !contains( beanProperties, name ) ) {
+                    iterator.add( new DictionaryTextWriter( writer, name, dict.value() ) );
+                }
+            }
+            return beanProperties;
+        }
+
+        private boolean isSupported( Class<?> type ) {
+            return type == Integer.class || type == int.class || type == String.class;
+        }
+
+        private boolean contains( List<BeanPropertyWriter> beanProperties, String name ) {
+            for ( BeanPropertyWriter writer : beanProperties ) {
+                if ( writer.getName().equals( name ) ) {
+                    return true; // Written by hand
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class DictionaryTextWriter extends BeanPropertyWriter {
+
+        private static final long serialVersionUID = -2806315012540315227L;
+
+        private final String key;
+
+        private DictionaryTextWriter( BeanPropertyWriter base, String name, String key ) {
+            super( base, new SerializedString( name ) );
+            this.key = key;
+        }
+
+        @Override
+        public void serializeAsField( Object bean, JsonGenerator gen, SerializerProvider prov ) throws Exception {
+            gen.writeFieldName( _name );
+            writeText( bean, gen );
+        }
+
+        @Override
+        public void serializeAsElement( Object bean, JsonGenerator gen, SerializerProvider prov ) throws Exception {
+            writeText( bean, gen );
+        }
+
+        private void writeText( Object bean, JsonGenerator gen ) throws Exception {
+            Dictionary dictionary = match( get( bean ) );
+            if ( dictionary == null ) {
+                gen.writeNull();
+            } else {
+                gen.writeString( dictionary.getText() );
+            }
+        }
+
+        private Dictionary match( Object value ) {
+            if ( value instanceof Integer ) {
+                return DictContext.manager().index( key ).match( ( Integer ) value );
+            }
+            if ( value instanceof String ) {
+                return DictContext.manager().match( key, ( String ) value );
+            }
+            return null;
+        }
+
+    }
+
+}
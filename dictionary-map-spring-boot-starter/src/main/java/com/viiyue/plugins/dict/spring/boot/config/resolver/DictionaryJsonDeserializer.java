@@ -16,11 +16,9 @@
 package com.viiyue.plugins.dict.spring.boot.config.resolver;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -28,9 +26,9 @@ import org.springframework.boot.jackson.JsonComponent;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.JsonStreamContext;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -38,6 +36,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerFactory;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
 import com.viiyue.plugins.dict.spring.boot.DictContext;
 import com.viiyue.plugins.dict.spring.boot.annotation.Dict;
 import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
@@ -53,15 +52,31 @@ import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
 @ConditionalOnClass( ObjectMapper.class )
 @ConditionalOnProperty( prefix = "spring.dict.jackson", name = "enable", matchIfMissing = true, havingValue = "true" )
 @EnableConfigurationProperties( DictionaryProperties.class )
-public class DictionaryJsonDeserializer extends JsonDeserializer<Dictionary> {
-
-    private static final Map<Class<?>, Map<String, String>> FIELDS = new ConcurrentHashMap<>( 128 );
+public class DictionaryJsonDeserializer extends JsonDeserializer<Dictionary> implements ContextualDeserializer {
 
     private final DictionaryProperties props;
+    private final String key; // The dictionary key of the property
     private BeanDeserializerBase oringinalDeserializer;
     
+    @Autowired
     public DictionaryJsonDeserializer( DictionaryProperties props ) {
+        this( props, null );
+    }
+    
+    private DictionaryJsonDeserializer( DictionaryProperties props, String key ) {
         this.props = props;
+        this.key = key;
+    }
+    
+    @Override
+    public JsonDeserializer<?> createContextual( DeserializationContext ctxt, BeanProperty property )
+            throws JsonMappingException {
+        // Also works for creator parameters and the elements of collection properties
+        Dict dict = property == null ? null : property.getAnnotation( Dict.class );
+        if ( dict == null || Objects.equals( dict.value(), key ) ) {
+            return this;
+        }
+        return new DictionaryJsonDeserializer( props, dict.value() );
     }
     
     @Override
@@ -73,7 +88,6 @@ public class DictionaryJsonDeserializer extends JsonDeserializer<Dictionary> {
         if ( JsonToken.START_OBJECT == token ) {
             BeanDeserializerBase deserializer = initOriginalDeserializer( ctx );
             if ( deserializer != null ) {
-                deserializer.resolve( ctx );
                 if ( props.isLogEnable() ) {
                     props.printLog( "Deserializer JSON string as a dictionary object" );
                 }
@@ -85,21 +99,11 @@ public class DictionaryJsonDeserializer extends JsonDeserializer<Dictionary> {
             }
         }
 
-        // Jackson parsing context
-        JsonStreamContext context = parser.getParsingContext();
-
-        // The object to which the field belongs
-        Object bean = context.getCurrentValue();
-        if ( bean == null ) {
-            return null;
-        }
-
-        // The field name of the dictionary object
-        String fieldName = context.getCurrentName();
-        final String cacheKey = getCacheKey( bean, fieldName );
+        // The dictionary key bound to the property
+        final String cacheKey = key;
         if ( cacheKey == null ) {
             throw new IllegalArgumentException( "You must specify the key for the dictionary( "
-                    + bean.getClass().getName() + "#" + fieldName + " )" );
+                    + parser.getParsingContext().pathAsPointer() + " )" );
         }
 
         // Integer( code ) → Dictionary
@@ -122,23 +126,6 @@ public class DictionaryJsonDeserializer extends JsonDeserializer<Dictionary> {
         return null;
     }
 
-    private String getCacheKey( Object bean, String fieldName ) {
-        Class<? extends Object> beanType = bean.getClass();
-        Map<String, String> dicts = FIELDS.get( beanType );
-        if ( dicts == null ) {
-            Field [] declares = beanType.getDeclaredFields();
-            dicts = new HashMap<>( declares.length );
-            for ( Field field : declares ) {
-                Dict dict = field.getAnnotation( Dict.class );
-                if ( dict != null ) {
-                    dicts.put( field.getName(), dict.value() );
-                }
-            }
-            FIELDS.put( beanType, dicts );
-        }
-        return dicts.get( fieldName );
-    }
-    
     private BeanDeserializerBase initOriginalDeserializer( DeserializationContext ctx ) throws JsonMappingException {
         if ( oringinalDeserializer == null ) {
             BeanDeserializerFactory bdf = ( BeanDeserializerFactory ) ctx.getFactory();
@@ -146,7 +133,9 @@ public class DictionaryJsonDeserializer extends JsonDeserializer<Dictionary> {
             BeanDescription description = ctx.getConfig().introspect( javaType );
             JsonDeserializer<Object> deserializer = bdf.buildBeanDeserializer( ctx, javaType, description );
             if ( deserializer instanceof BeanDeserializerBase ) {
-                this.oringinalDeserializer = ( BeanDeserializerBase ) deserializer;
+                BeanDeserializerBase original = ( BeanDeserializerBase ) deserializer;
+                original.resolve( ctx ); // Only once
+                this.oringinalDeserializer = original;
             }
         }
         return this.oringinalDeserializer;
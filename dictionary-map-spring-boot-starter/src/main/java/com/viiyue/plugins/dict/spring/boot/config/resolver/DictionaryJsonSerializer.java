@@ -16,6 +16,9 @@
 package com.viiyue.plugins.dict.spring.boot.config.resolver;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -24,6 +27,8 @@ import org.springframework.boot.jackson.JsonComponent;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.type.WritableTypeId;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.JavaType;
@@ -51,6 +56,7 @@ import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
 public class DictionaryJsonSerializer extends JsonSerializer<Dictionary> {
 
     private final DictionaryProperties props;
+    private final Map<String, SerializableString> names = new ConcurrentHashMap<>( 8 );
     private JsonSerializer<Object> originalSerializer;
 
     public DictionaryJsonSerializer( DictionaryProperties props ) {
@@ -85,8 +91,55 @@ public class DictionaryJsonSerializer extends JsonSerializer<Dictionary> {
                }
            }
         } else {
-            gen.writeObject( value.toObject( props ) );
+            Rendered rendered = render( value );
+            if ( rendered.bean ) {
+                JsonSerializer<Object> serializer = initOringinalSerializer( gen, serializers );
+                if ( serializer != null ) {
+                    serializer.serialize( value, gen, serializers );
+                } else {
+                    gen.writeNull();
+                }
+            } else {
+                rendered.write( gen, serializers );
+            }
+        }
+    }
+    
+    /**
+     * Render the dictionary once and keep it in the dictionary, so the cached dictionaries are serialized without
+     * reflection and temporary maps.
+     */
+    @SuppressWarnings( "unchecked" )
+    private Rendered render( Dictionary value ) {
+        String [] expands = props.getExpands();
+        Object cached = value.rendered();
+        if ( cached instanceof Rendered && ( ( Rendered ) cached ).expands == expands ) {
+            return ( Rendered ) cached;
         }
+        Rendered rendered;
+        Object element = value.toObject( props );
+        if ( element == value ) {
+            rendered = new Rendered( expands, null, null, true );
+        } else if ( element instanceof Map ) {
+            Map<String, Object> values = ( Map<String, Object> ) element;
+            SerializableString [] fieldNames = new SerializableString[ values.size() ];
+            Object [] fieldValues = new Object[ values.size() ];
+            int index = 0;
+            for ( Entry<String, Object> entry : values.entrySet() ) {
+                fieldNames[ index ] = names.computeIfAbsent( entry.getKey(), SerializedString::new );
+                Object fieldValue = entry.getValue();
+                if ( fieldValue instanceof String ) {
+                    fieldValue = new SerializedString( ( String ) fieldValue );
+                }
+                fieldValues[ index ++ ] = fieldValue;
+            }
+            rendered = new Rendered( expands, fieldNames, fieldValues, false );
+        } else {
+            Object text = element == null ? null : new SerializedString( element.toString() );
+            rendered = new Rendered( expands, null, new Object[] { text }, false );
+        }
+        value.rendered( rendered );
+        return rendered;
     }
     
     private JsonSerializer<Object> initOringinalSerializer( JsonGenerator gen, SerializerProvider serializers )
@@ -104,5 +157,54 @@ public class DictionaryJsonSerializer extends JsonSerializer<Dictionary> {
         }
         return originalSerializer;
     }
+    
+    /**
+     * The pre-rendered dictionary, the field names and texts are pre-encoded, and it is rendered again once the
+     * exported fields are changed.
+     */
+    private static final class Rendered {
+        
+        private final String [] expands;
+        private final SerializableString [] fieldNames; // Null means a single value
+        private final Object [] values;
+        private final boolean bean;
+        
+        private Rendered( String [] expands, SerializableString [] fieldNames, Object [] values, boolean bean ) {
+            this.expands = expands;
+            this.fieldNames = fieldNames;
+            this.values = values;
+            this.bean = bean;
+        }
+        
+        private void write( JsonGenerator gen, SerializerProvider serializers ) throws IOException {
+            if ( fieldNames == null ) {
+                writeValue( values[ 0 ], gen, serializers );
+                return;
+            }
+            gen.writeStartObject();
+            for ( int i = 0; i < fieldNames.length; i ++ ) {
+                gen.writeFieldName( fieldNames[ i ] );
+                writeValue( values[ i ], gen, serializers );
+            }
+            gen.writeEndObject();
+        }
+        
+        private void writeValue( Object value, JsonGenerator gen, SerializerProvider serializers ) throws IOException {
+            if ( value == null ) {
+                gen.writeNull();
+            } else if ( value instanceof SerializableString ) {
+                gen.writeString( ( SerializableString ) value );
+            } else if ( value instanceof Integer ) {
+                gen.writeNumber( ( Integer ) value );
+            } else if ( value instanceof Long ) {
+                gen.writeNumber( ( Long ) value );
+            } else if ( value instanceof Boolean ) {
+                gen.writeBoolean( ( Boolean ) value );
+            } else {
+                serializers.defaultSerializeValue( value, gen );
+            }
+        }
+        
+    }
 
 }
@@ -19,6 +19,7 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
 import java.util.StringJoiner;
 
@@ -34,21 +35,19 @@ public class DefaultSqlResolver extends SqlResolver {
 
     private static final String COPY_TABLE = "CREATE TABLE IF NOT EXISTS {0} LIKE {1}";
     private static final String COPY_DATA = "INSERT INTO {0} SELECT * FROM {1}";
-
-    private final String listDelimiter;
-    private final String listPrefix, listSuffix;
+    private static final String COPY_PARTITION = "INSERT INTO {0} {1} SELECT {2} FROM {0} WHERE {3} = ?";
 
     public DefaultSqlResolver( DictionaryProperties props ) {
-        super( props );
-        String wrapText = props.getColumnWrapText();
-        this.listDelimiter = props.wrap( ", " );
-        this.listPrefix = "(" + wrapText;
-        this.listSuffix = wrapText + ")";
+        this( props, props.getColumnWrapText() );
+    }
+
+    protected DefaultSqlResolver( DictionaryProperties props, String quote ) {
+        super( props, quote );
     }
 
     @Override
     public String check( String table ) {
-        return MessageFormat.format( CHECK, props.wrap( table ) );
+        return MessageFormat.format( CHECK, wrap( table ) );
     }
 
     @Override
@@ -58,7 +57,7 @@ public class DefaultSqlResolver extends SqlResolver {
 
     @Override
     public String query( String table, String ... conditions ) {
-        String statement = MessageFormat.format( QUERY, props.wrap( table ) );
+        String statement = MessageFormat.format( QUERY, wrap( table ) );
         if ( !isEmpty( conditions ) ) {
             statement += toWhere( conditions );
         }
@@ -67,14 +66,37 @@ public class DefaultSqlResolver extends SqlResolver {
 
     @Override
     public String queryWithin( String table, String column, Object ... values ) {
+        return queryWithin( table, EMPTY_STRING_ARRAY, column, values );
+    }
+
+    @Override
+    public String queryWithin( String table, String [] conditions, String column, Object ... values ) {
         StringJoiner joiner = new StringJoiner( ", ", "(", ")" );
         Arrays.stream( values ).forEach( v -> joiner.add( "?" ) );
-        return query( table ) + " WHERE " + props.wrap( column ) + " IN " + joiner;
+        String statement = query( table, conditions );
+        return statement + ( isEmpty( conditions ) ? " WHERE " : " AND " ) + wrap( column ) + " IN " + joiner;
+    }
+
+    @Override
+    public String queryOrdered( String table, String ... columns ) {
+        StringJoiner joiner = new StringJoiner( ", " );
+        Arrays.stream( columns ).forEach( column -> joiner.add( wrap( column ) ) );
+        return query( table ) + " ORDER BY " + joiner;
+    }
+
+    @Override
+    public String watermark( String table, String ... conditions ) {
+        String statement = MessageFormat.format( WATERMARK, wrap( table ), wrap( "id" ), wrap( "create_time" ),
+                wrap( "update_time" ), wrap( "enabled" ) );
+        if ( !isEmpty( conditions ) ) {
+            statement += toWhere( conditions );
+        }
+        return statement;
     }
 
     @Override
     public String insert( String table, String values ) {
-        return MessageFormat.format( INSERT, props.wrap( table ), values );
+        return MessageFormat.format( INSERT, wrap( table ), values );
     }
 
     @Override
@@ -86,24 +108,31 @@ public class DefaultSqlResolver extends SqlResolver {
 
     @Override
     public String insert( String table, Map<String, Object> map ) {
-        StringJoiner columns = new StringJoiner( listDelimiter, listPrefix, listSuffix );
+        StringJoiner columns = new StringJoiner( ", ", "(", ")" );
         StringJoiner values = new StringJoiner( ", ", "(", ")" );
         map.forEach( ( olumn, value ) -> {
-            columns.add( olumn );
+            columns.add( wrap( olumn ) );
             values.add( "?" );
         } );
-        return MessageFormat.format( INSERT, props.wrap( table ) + " " + columns, values );
+        return MessageFormat.format( INSERT, wrap( table ) + " " + columns, values );
+    }
+
+    @Override
+    public String insert( String table, Collection<String> columns, String values ) {
+        StringJoiner joiner = new StringJoiner( ", ", "(", ")" );
+        columns.forEach( name -> joiner.add( wrap( name ) ) );
+        return MessageFormat.format( INSERT, wrap( table ) + " " + joiner, values );
     }
 
     @Override
     public String update( String table, String expression ) {
-        return MessageFormat.format( UPDATE, props.wrap( table ), expression );
+        return MessageFormat.format( UPDATE, wrap( table ), expression );
     }
 
     @Override
     public String update( String table, Map<String, Object> map ) {
         StringJoiner joiner = new StringJoiner( ", " );
-        map.forEach( ( name, value ) -> joiner.add( props.wrap( name ) + " = ?" ) );
+        map.forEach( ( name, value ) -> joiner.add( wrap( name ) + " = ?" ) );
         return update( table, joiner.toString() );
     }
 
@@ -132,7 +161,7 @@ public class DefaultSqlResolver extends SqlResolver {
 
     @Override
     public String delete( String table, String ... conditions ) {
-        String statement = MessageFormat.format( DELETE, props.wrap( table ) );
+        String statement = MessageFormat.format( DELETE, wrap( table ) );
         if ( !isEmpty( conditions ) ) {
             statement += toWhere( conditions );
         }
@@ -141,22 +170,32 @@ public class DefaultSqlResolver extends SqlResolver {
 
     @Override
     public String copyTable( String source, String target ) {
-        return MessageFormat.format( COPY_TABLE, props.wrap( target ), props.wrap( source ) );
+        return MessageFormat.format( COPY_TABLE, wrap( target ), wrap( source ) );
     }
 
     @Override
     public String copyData( String source, String target ) {
-        return MessageFormat.format( COPY_DATA, props.wrap( target ), props.wrap( source ) );
+        return MessageFormat.format( COPY_DATA, wrap( target ), wrap( source ) );
+    }
+
+    @Override
+    public String copyPartition( String table, String column, Collection<String> columns ) {
+        StringJoiner selects = new StringJoiner( ", ", "", ", ?" );
+        columns.forEach( name -> selects.add( wrap( name ) ) );
+        StringJoiner inserts = new StringJoiner( ", ", "(", ")" );
+        columns.forEach( name -> inserts.add( wrap( name ) ) );
+        inserts.add( wrap( column ) );
+        return MessageFormat.format( COPY_PARTITION, wrap( table ), inserts, selects, wrap( column ) );
     }
 
     @Override
     public String drop( String table ) {
-        return MessageFormat.format( DROP, props.wrap( table ) );
+        return MessageFormat.format( DROP, wrap( table ) );
     }
 
     private String toWhere( String ... conditions ) {
         StringJoiner joiner = new StringJoiner( " AND " );
-        Arrays.stream( conditions ).forEach( column -> joiner.add( props.wrap( column ) + " = ?" ) );
+        Arrays.stream( conditions ).forEach( column -> joiner.add( wrap( column ) + " = ?" ) );
         return " WHERE " + joiner;
     }
 
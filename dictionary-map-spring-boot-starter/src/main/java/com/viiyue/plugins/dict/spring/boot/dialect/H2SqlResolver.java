@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.dialect;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
+
+/**
+ * The SQL resolver provided according to the {@code H2} database.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public class H2SqlResolver extends DefaultSqlResolver {
+
+    /** SQL: {@value}, look up the table in the catalog of the current schema. */
+    private static final String CHECK_CATALOG = "SELECT 1 FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?";
+    /** SQL: {@value}, the copy has no constraints, so the primary key is added to it afterwards. */
+    private static final String COPY_TABLE = "CREATE TABLE IF NOT EXISTS {0} AS SELECT * FROM {1} WITH NO DATA; "
+            + "ALTER TABLE {0} ALTER COLUMN {2} SET NOT NULL; "
+            + "ALTER TABLE {0} ADD CONSTRAINT IF NOT EXISTS {3} PRIMARY KEY ( {2} )";
+    /** Error codes of the missing table ( 42102, 42103, 42104 ) */
+    private static final int TABLE_OR_VIEW_NOT_FOUND_MIN = 42102, TABLE_OR_VIEW_NOT_FOUND_MAX = 42104;
+
+    public H2SqlResolver( DictionaryProperties props ) {
+        super( props, "\"" );
+    }
+
+    @Override
+    public String check( String table ) {
+        return CHECK_CATALOG;
+    }
+
+    @Override
+    public void bindCheck( PreparedStatement statement, String table ) throws SQLException {
+        statement.setString( 1, table );
+    }
+
+    @Override
+    public boolean exists( ResultSet result ) throws SQLException {
+        return result.next();
+    }
+
+    @Override
+    public boolean isTableNotFound( SQLException e ) {
+        int errorCode = e.getErrorCode();
+        return super.isTableNotFound( e )
+                || ( errorCode >= TABLE_OR_VIEW_NOT_FOUND_MIN && errorCode <= TABLE_OR_VIEW_NOT_FOUND_MAX );
+    }
+
+    @Override
+    public String copyTable( String source, String target ) {
+        return MessageFormat.format( COPY_TABLE, wrap( target ), wrap( source ), wrap( "id" ),
+                wrap( target + "_pkey" ) );
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.dialect;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
+
+/**
+ * The SQL resolver provided according to the {@code PostgreSQL} database. The names are folded to lower case like
+ * {@code PostgreSQL} does for the unquoted names, and then quoted in case they are reserved words such as "key", so a
+ * mixed-case name in the configuration refers to the table created without quotes, and it is found in the catalog.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public class PostgresSqlResolver extends DefaultSqlResolver {
+
+    /** SQL: {@value}, look up the table in the catalog of the current schema. */
+    private static final String CHECK_CATALOG = "SELECT 1 FROM information_schema.tables WHERE table_schema = current_schema() AND table_name = ?";
+    private static final String COPY_TABLE = "CREATE TABLE IF NOT EXISTS {0} (LIKE {1} INCLUDING ALL)";
+    private static final String SQL_STATE_UNDEFINED_TABLE = "42P01";
+
+    public PostgresSqlResolver( DictionaryProperties props ) {
+        super( props, "\"" );
+    }
+
+    @Override
+    public String wrap( String content ) {
+        return super.wrap( content == null ? null : content.toLowerCase( Locale.ENGLISH ) );
+    }
+
+    @Override
+    public String check( String table ) {
+        return CHECK_CATALOG;
+    }
+
+    @Override
+    public void bindCheck( PreparedStatement statement, String table ) throws SQLException {
+        statement.setString( 1, table.toLowerCase( Locale.ENGLISH ) );
+    }
+
+    @Override
+    public boolean exists( ResultSet result ) throws SQLException {
+        return result.next();
+    }
+
+    @Override
+    public boolean isTableNotFound( SQLException e ) {
+        return Objects.equals( SQL_STATE_UNDEFINED_TABLE, e.getSQLState() );
+    }
+
+    @Override
+    public String copyTable( String source, String target ) {
+        return MessageFormat.format( COPY_TABLE, wrap( target ), wrap( source ) );
+    }
+
+}
@@ -15,9 +15,22 @@
  */
 package com.viiyue.plugins.dict.spring.boot.dialect;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.springframework.util.StringUtils;
 
 import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
+import com.viiyue.plugins.dict.spring.boot.utils.Helper;
 
 /**
  * An abstract SQL resolver for serving SQL statements for different platforms.
@@ -28,10 +41,14 @@ import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
 public abstract class SqlResolver {
 
     protected static final String[] EMPTY_STRING_ARRAY = {};
+    /** SQL state: {@value}, the table or view does not exist. */
+    protected static final String SQL_STATE_TABLE_OR_VIEW_NOT_FOUND = "42S02";
     /** SQL: {@value}, in order to detect the presence of a table. */
     protected static final String CHECK = "SELECT id FROM {0} LIMIT 1";
     /** SQL: {@value} */
     protected static final String QUERY = "SELECT * FROM {0}";
+    /** SQL: {@value}, the row count and the latest id and times, which change whenever the table is modified. */
+    protected static final String WATERMARK = "SELECT COUNT(*), MAX({1}), MAX({2}), MAX({3}), SUM({4}) FROM {0}";
     /** SQL: {@value} */
     protected static final String INSERT = "INSERT INTO {0} VALUES {1}";
     /** SQL: {@value} */
@@ -42,15 +59,103 @@ public abstract class SqlResolver {
     protected static final String DROP = "DROP TABLE {0}";
 
     protected final DictionaryProperties props;
+    protected final String quote;
 
     public SqlResolver( DictionaryProperties props ) {
+        this( props, props.getColumnWrapText() );
+    }
+
+    public SqlResolver( DictionaryProperties props, String quote ) {
         this.props = props;
+        this.quote = quote;
+    }
+
+    /**
+     * Choose the SQL resolver according to the database product of the data source, and use
+     * {@link DefaultSqlResolver} if the product cannot be recognized.
+     * 
+     * @param props      the dictionary properties
+     * @param dataSource the data source
+     * @return the SQL resolver of the database platform
+     */
+    public static SqlResolver detect( DictionaryProperties props, DataSource dataSource ) {
+        String product = null;
+        try ( Connection connection = dataSource.getConnection() ) {
+            DatabaseMetaData metadata = connection.getMetaData();
+            product = metadata.getDatabaseProductName();
+        } catch ( SQLException e ) {
+            if ( Helper.LOG.isWarnEnabled() ) {
+                Helper.LOG.warn( "Unable to detect the database product: {}", e.getMessage() );
+            }
+        }
+        if ( props.isLogEnable() ) {
+            props.printLog( "The database product is \"{}\"", product );
+        }
+        if ( !StringUtils.isEmpty( product ) ) {
+            product = product.toLowerCase( Locale.ENGLISH );
+            if ( product.contains( "postgresql" ) ) {
+                return new PostgresSqlResolver( props );
+            }
+            if ( product.contains( "h2" ) ) {
+                return new H2SqlResolver( props );
+            }
+        }
+        return new DefaultSqlResolver( props );
+    }
+
+    /**
+     * Wrap the table or column name with the quotation of the database platform
+     * 
+     * @param content the table or column name
+     * @return the wrapped name
+     */
+    public String wrap( String content ) {
+        return StringUtils.isEmpty( quote ) ? content : quote + content + quote;
+    }
+
+    /**
+     * Whether the result of the {@link #check(String)} statement means that the table exists
+     * 
+     * @param result the result of the check statement
+     * @return {@code true} means that the table exists, otherwise it does not.
+     * @throws SQLException if a database access error occurs
+     */
+    public boolean exists( ResultSet result ) throws SQLException {
+        return true; // The query is executed successfully
+    }
+
+    /**
+     * Bind the parameters of the {@link #check(String)} statement, the names are bound rather than written into the
+     * statement if it looks them up in the catalog.
+     * 
+     * @param statement the check statement
+     * @param table     the table name
+     * @throws SQLException if a database access error occurs
+     */
+    public void bindCheck( PreparedStatement statement, String table ) throws SQLException {
+        // The table name is a part of the default statement
+    }
+
+    /**
+     * Whether the exception is caused by the table or view does not exist
+     * 
+     * @param e the SQL exception
+     * @return {@code true} means that the table does not exist
+     */
+    public boolean isTableNotFound( SQLException e ) {
+        return Objects.equals( SQL_STATE_TABLE_OR_VIEW_NOT_FOUND, e.getSQLState() );
     }
 
     public abstract String check( String table );
 
     public abstract String queryWithin( String table, String column, Object ... values );
 
+    public abstract String queryWithin( String table, String [] conditions, String column, Object ... values );
+
+    public abstract String queryOrdered( String table, String ... columns );
+
+    public abstract String watermark( String table, String ... conditions );
+
     public abstract String query( String table );
 
     public abstract String query( String table, String ... conditions );
@@ -61,6 +166,8 @@ public abstract class SqlResolver {
 
     public abstract String insert( String table, Map<String, Object> map );
 
+    public abstract String insert( String table, Collection<String> columns, String values );
+
     public abstract String update( String table, String expression );
 
     public abstract String update( String table, Map<String, Object> map );
@@ -77,6 +184,8 @@ public abstract class SqlResolver {
 
     public abstract String copyData( String target, String source );
 
+    public abstract String copyPartition( String table, String column, Collection<String> columns );
+
     public abstract String drop( String table );
 
 }
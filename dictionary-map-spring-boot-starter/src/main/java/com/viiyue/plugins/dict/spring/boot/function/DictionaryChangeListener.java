@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.function;
+
+import java.util.Collection;
+
+/**
+ * Dictionary change listener, which is notified after the dictionaries have been changed and the caches have been
+ * reloaded
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface DictionaryChangeListener {
+
+    /**
+     * @param language the changed language, {@code null} means default.
+     * @param keys     the changed dictionary keys, {@code null} means all keys of the language.
+     */
+    void onChanged( String language, Collection<String> keys );
+
+}
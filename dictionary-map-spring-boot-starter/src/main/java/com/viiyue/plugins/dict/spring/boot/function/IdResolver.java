@@ -23,5 +23,22 @@ package com.viiyue.plugins.dict.spring.boot.function;
  */
 @FunctionalInterface
 public interface IdResolver {
+
     Long nextId();
+
+    /**
+     * Reserve the next {@code count} ids at once, override it if the ids can be fetched in blocks, such as from a
+     * database sequence or a remote id service.
+     * 
+     * @param count the number of ids
+     * @return the reserved ids
+     */
+    default long [] nextIds( int count ) {
+        long [] ids = new long[ Math.max( count, 0 ) ];
+        for ( int i = 0; i < ids.length; i ++ ) {
+            ids[ i ] = nextId();
+        }
+        return ids;
+    }
+
 }
@@ -39,6 +39,21 @@ public class MemoryDictManager extends AbstractDictManager<String> {
         super( bridge, datasource );
     }
 
+    @Override
+    public String backend() {
+        return "memory";
+    }
+
+    @Override
+    public boolean isByReference() {
+        return true;
+    }
+
+    @Override
+    public long size() {
+        return caches.size();
+    }
+
     @Override
     public boolean existsKey( String key ) {
         Boolean hasKey = caches.containsKey( key );
@@ -55,6 +70,7 @@ public class MemoryDictManager extends AbstractDictManager<String> {
     @Override
     public Object getValue( Object key ) {
         Object cachedValue = caches.get( key );
+        bridge.recorder().cacheGet( "memory", key, cachedValue != null );
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Get the cached value of key \"{}\" from the Memory", key );
             if ( cachedValue != null ) {
@@ -72,6 +88,7 @@ public class MemoryDictManager extends AbstractDictManager<String> {
     @Override
     public void setValue( String key, Object value ) {
         caches.put( key, value );
+        bridge.recorder().cacheSet( "memory", key );
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Set the cache value of key \"{}\" to Memory", key );
         }
@@ -83,6 +100,7 @@ public class MemoryDictManager extends AbstractDictManager<String> {
             bridge.printLog( "Clear the cache value with the cache key of \"{}\"", key );
         }
         boolean deleted = caches.remove( key ) != null;
+        bridge.recorder().cacheClear( "memory", key, deleted );
         if ( bridge.isLogEnable() ) {
             if ( deleted ) {
                 bridge.printLog( "Cleanup succeeded" );
@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.manager;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.viiyue.plugins.dict.spring.boot.meta.CompactDictionaryList;
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.meta.ParameterBridge;
+
+/**
+ * Memory-based dictionary cache manager, which packs the large dictionary lists into
+ * {@link CompactDictionaryList compact lists} off the heap, for very large dictionaries such as regions and catalogs.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public class OffHeapDictManager extends MemoryDictManager {
+
+    private final int threshold;
+
+    public OffHeapDictManager( ParameterBridge bridge, DataSource datasource ) {
+        super( bridge, datasource );
+        this.threshold = Math.max( 1, bridge.props().getOffHeapThreshold() );
+    }
+
+    @Override
+    public String backend() {
+        return "off-heap";
+    }
+
+    @Override
+    public void setValue( String key, Object value ) {
+        super.setValue( key, compact( value ) );
+    }
+
+    /**
+     * Only the dictionary lists are packed, the languages, the expanded trees and the references stay as they are
+     */
+    @SuppressWarnings( "unchecked" )
+    private Object compact( Object value ) {
+        if ( value instanceof List && !( value instanceof CompactDictionaryList ) ) {
+            List<?> list = ( List<?> ) value;
+            if ( list.size() >= threshold && list.get( 0 ) instanceof Dictionary ) {
+                CompactDictionaryList compact = CompactDictionaryList.of( ( List<Dictionary> ) list );
+                if ( bridge.isLogEnable() ) {
+                    bridge.printLog( "Packed {} dictionaries into {} bytes off the heap", compact.size(),
+                            compact.offHeapBytes() );
+                }
+                return compact;
+            }
+        }
+        return value;
+    }
+
+}
@@ -40,6 +40,11 @@ public class RedisDictManager<K> extends AbstractDictManager<K> {
         this.redis = redisTemplate;
     }
 
+    @Override
+    public String backend() {
+        return "redis";
+    }
+
     @Override
     public boolean existsKey( K key ) {
         Boolean hasKey = redis.hasKey( key );
@@ -56,6 +61,7 @@ public class RedisDictManager<K> extends AbstractDictManager<K> {
     @Override
     public Object getValue( Object key ) {
         Object cachedValue = redis.opsForValue().get( key );
+        bridge.recorder().cacheGet( "redis", key, cachedValue != null );
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Get the cached value of key \"{}\" from the Redis", key );
             if ( cachedValue != null ) {
@@ -73,6 +79,7 @@ public class RedisDictManager<K> extends AbstractDictManager<K> {
     @Override
     public void setValue( K key, Object value ) {
         redis.opsForValue().set( key, value );
+        bridge.recorder().cacheSet( "redis", key );
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Set the cache value of key \"{}\" to Redis", key );
         }
@@ -84,6 +91,7 @@ public class RedisDictManager<K> extends AbstractDictManager<K> {
             bridge.printLog( "Clear the cache value with the cache key of \"{}\"", key );
         }
         Boolean deleted = redis.delete( key );
+        bridge.recorder().cacheClear( "redis", key, Boolean.TRUE.equals( deleted ) );
         if ( bridge.isLogEnable() ) {
             if ( deleted ) {
                 bridge.printLog( "Cleanup succeeded" );
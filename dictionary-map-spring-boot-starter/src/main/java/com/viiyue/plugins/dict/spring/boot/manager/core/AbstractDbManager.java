@@ -17,12 +17,13 @@ package com.viiyue.plugins.dict.spring.boot.manager.core;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Objects;
 
 import javax.sql.DataSource;
 
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
 import com.viiyue.plugins.dict.spring.boot.function.SqlProvider;
 import com.viiyue.plugins.dict.spring.boot.meta.ParameterBridge;
 import com.viiyue.plugins.dict.spring.boot.utils.Helper;
@@ -38,8 +39,6 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 class AbstractDbManager extends AbstractManager {
 
-    private static final String SQL_STATE_TABLE_OR_VIEW_NOT_FOUND = "42S02"; // For MYSQL
-
     final DataSource dataSource;
 
     public AbstractDbManager( ParameterBridge bridge, DataSource dataSource ) {
@@ -61,11 +60,48 @@ class AbstractDbManager extends AbstractManager {
         }
     }
 
+    /**
+     * The dictionary table of the language, which is partitioned by the language column if all languages share one
+     * dictionary table.
+     * 
+     * @param language the language, {@code null} means default.
+     * @return the table scope
+     */
+    final TableScope dictScope( String language ) {
+        DictionaryProperties props = bridge.props();
+        String table = props.getDictTable( language );
+        if ( props.isSingleTable() ) {
+            return TableScope.partitioned( table, props.getLangColumn(), language );
+        }
+        return TableScope.of( table );
+    }
+
     protected int update( String sql ) {
         return execute( 0, sql, statement -> statement.executeUpdate() );
     }
 
     protected <R> R execute( R defValue, String sql, SqlProvider<PreparedStatement, R> fun ) {
+        return execute( defValue, sql, fun, false );
+    }
+
+    /**
+     * Execute the statement like {@link #execute(Object, String, SqlProvider)}, but the errors other than a missing
+     * table are thrown instead of being logged, so that the caller can tell a failure from no rows affected.
+     * 
+     * @param <R>      the result type
+     * @param defValue the result if the table does not exist
+     * @param sql      the statement
+     * @param fun      the statement callback
+     * @return the result of the callback
+     * @throws IllegalStateException if the statement failed
+     */
+    protected <R> R executeStrictly( R defValue, String sql, SqlProvider<PreparedStatement, R> fun ) {
+        return execute( defValue, sql, fun, true );
+    }
+
+    private <R> R execute( R defValue, String sql, SqlProvider<PreparedStatement, R> fun, boolean strict ) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
         try {
             printSQL( sql );
             try ( Connection connection = dataSource.getConnection() ) {
@@ -75,20 +111,23 @@ class AbstractDbManager extends AbstractManager {
                     if ( bridge.isLogEnable() ) {
                         bridge.printLog( "The statement executed successfully" );
                     }
+                    succeeded = true;
                     return result;
                 }
             }
         } catch ( Exception e ) {
             boolean handled = false;
-            if ( e instanceof SQLSyntaxErrorException ) {
-                String state = ( ( SQLSyntaxErrorException ) e ).getSQLState();
-                if ( Objects.equals( SQL_STATE_TABLE_OR_VIEW_NOT_FOUND, state ) ) {
+            if ( e instanceof SQLException ) {
+                if ( bridge.sql().isTableNotFound( ( SQLException ) e ) ) {
                     handled = true;
                     if ( Helper.LOG.isWarnEnabled() ) {
                         Helper.LOG.warn( "==> {}", e.getMessage() );
                     }
                 }
             }
+            if ( !handled && strict ) {
+                throw new IllegalStateException( "Failed to execute: " + sql, e );
+            }
             if ( !handled ) {
                 if ( Helper.LOG.isErrorEnabled() ) {
                     log.error( e.getMessage(), e );
@@ -97,6 +136,8 @@ class AbstractDbManager extends AbstractManager {
                 }
             }
             return defValue;
+        } finally {
+            bridge.recorder().statement( sql, System.nanoTime() - start, succeeded );
         }
     }
 
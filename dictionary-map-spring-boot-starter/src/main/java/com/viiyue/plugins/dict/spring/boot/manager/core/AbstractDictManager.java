@@ -19,11 +19,25 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -36,9 +50,15 @@ import org.springframework.util.Assert;
 import com.viiyue.plugins.dict.spring.boot.DictManager;
 import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
 import com.viiyue.plugins.dict.spring.boot.dialect.SqlResolver;
+import com.viiyue.plugins.dict.spring.boot.function.DictionaryChangeListener;
+import com.viiyue.plugins.dict.spring.boot.function.SqlProvider;
+import com.viiyue.plugins.dict.spring.boot.meta.BeanProperty;
 import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryIndex;
+import com.viiyue.plugins.dict.spring.boot.meta.DictionaryKeyIndex;
 import com.viiyue.plugins.dict.spring.boot.meta.Language;
 import com.viiyue.plugins.dict.spring.boot.meta.ParameterBridge;
+import com.viiyue.plugins.dict.spring.boot.utils.Helper;
 
 /**
  * An abstract dictionary manager, primarily used to implement interface methods in common parts.
@@ -55,12 +75,25 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
     protected final QueryableManager queryable;
     protected final UpdatableManager updateable;
     protected final CacheableManager<K> cacheable;
+    private final LanguageExecutor executor;
+    private final Map<String, DictionaryIndex> indexes = new ConcurrentHashMap<>( 64 );
+    private final Map<String, DictionaryKeyIndex> keyIndexes = new ConcurrentHashMap<>( 16 );
+    private final List<DictionaryChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, SnapshotFile.Partition> restored = new ConcurrentHashMap<>( 16 );
 
     public AbstractDictManager( ParameterBridge bridge, DataSource datasource ) {
         this.bridge = bridge;
         this.queryable = new QueryableManager( bridge, datasource );
         this.updateable = new UpdatableManager( bridge, datasource );
         this.cacheable = new CacheableManager<K>( bridge, queryable, this, ":" );
+        this.executor = new LanguageExecutor( bridge.props().getParallelism() );
+    }
+
+    /**
+     * @return the parameter bridge shared by the managers
+     */
+    public final ParameterBridge bridge() {
+        return bridge;
     }
 
     @Override
@@ -81,6 +114,18 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
         return cacheable.expandAll( null );
     }
 
+    /**
+     * Expand all dictionaries of the language of the current request, the requested languages falling back to the same
+     * language share the same expanded map, which is replaced as a whole when any dictionary of it is changed.
+     * 
+     * @param resolved receives the language which the dictionaries are expanded from at its first element,
+     *                 {@code null} means default.
+     * @return the expanded dictionaries
+     */
+    public Map<String, Object> expandAll( String [] resolved ) {
+        return cacheable.expandAll( null, resolved );
+    }
+
     @Override
     public List<Dictionary> getAll() {
         return filter( cacheable.loadAll( null ) );
@@ -108,14 +153,101 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
         return filter( getAlways( keys ) );
     }
 
+    @Override
+    public List<Dictionary> getByPrefix( @NonNull String prefix ) {
+        return filter( getByPrefixAlways( prefix ) );
+    }
+
+    @Override
+    public List<Dictionary> getByPrefixAlways( @NonNull String prefix ) {
+        Assert.notNull( prefix, "Please specify a dictionary key prefix" );
+        String [] resolved = new String[ 1 ];
+        List<Dictionary> all = cacheable.loadAll( null, resolved );
+        String namespace = DictionaryKeyIndex.namespace( prefix );
+        if ( namespace.isEmpty() ) {
+            return all;
+        }
+        // The namespace is sliced from the all list, so it is always the same branch as the expanded dictionaries
+        if ( !isByReference() ) {
+            return DictionaryKeyIndex.scan( all, namespace );
+        }
+        return keyIndex( resolved[ 0 ], all ).dictsOf( namespace );
+    }
+
+    @Override
+    public Dictionary match( @NonNull String key, Integer code ) {
+        if ( code == null || !isByReference() ) {
+            return DictManager.super.match( key, code );
+        }
+        return index( key ).match( code );
+    }
+
+    @Override
+    public Dictionary matchAlways( @NonNull String key, Integer code ) {
+        if ( code == null || !isByReference() ) {
+            return DictManager.super.matchAlways( key, code );
+        }
+        return index( key ).matchAlways( code );
+    }
+
+    @Override
+    public DictionaryIndex index( @NonNull String key ) {
+        Assert.notNull( key, "Please specify a dictionary key" );
+        return index( bridge.getLanguage(), key );
+    }
+
+    /**
+     * The code index is only kept if the cached lists are held by reference, otherwise a new list is read on every
+     * access, and the index is built for the caller alone.
+     * 
+     * @param language the requested language, {@code null} means default.
+     * @param key      the dictionary key
+     * @return the code index of the dictionaries of the key in the language
+     */
+    private DictionaryIndex index( String language, String key ) {
+        String [] resolved = new String[ 1 ];
+        List<Dictionary> dicts = cacheable.loadByKey( language == null ? "" : language, key, resolved );
+        if ( !isByReference() ) {
+            return DictionaryIndex.of( dicts );
+        }
+        // Keyed by the language the list is read from, the requested languages falling back to it share the index
+        String indexKey = ( resolved[ 0 ] == null ? "" : resolved[ 0 ] ) + ":" + key;
+        DictionaryIndex index = indexes.get( indexKey );
+        if ( index == null || !index.isIndexOf( dicts ) ) {
+            // The cached list is replaced as a whole when the key is reloaded
+            indexes.put( indexKey, index = DictionaryIndex.of( dicts ) );
+        }
+        return index;
+    }
+
+    /**
+     * The key index is only kept if the cached lists are held by reference, and it is keyed by the language the all list
+     * is read from, so the requested languages falling back to it share the index.
+     * 
+     * @param language the language which the all list is read from, {@code null} means default.
+     * @param all      the all list of the language
+     * @return the sorted key index of the all list
+     */
+    private DictionaryKeyIndex keyIndex( String language, List<Dictionary> all ) {
+        String lang = language == null ? "" : language;
+        DictionaryKeyIndex index = keyIndexes.get( lang );
+        if ( index == null || !index.isIndexOf( all ) ) {
+            // The cached all list is replaced as a whole when any key of it is reloaded
+            keyIndexes.put( lang, index = DictionaryKeyIndex.of( all ) );
+        }
+        return index;
+    }
+
     @Override
     public boolean add( @Nullable Locale locale, @NonNull Dictionary dict ) {
         Assert.notNull( dict, "Dictionary entry cannot be null" );
         String lang = bridge.toLanguage( locale );
-        String table = bridge.props().getDictTable( lang );
+        TableScope table = updateable.dictScope( lang );
         if ( updateable.insert( table, dict ) > 0 ) {
+            Set<String> keys = Collections.singleton( dict.getKey() );
             cacheable.reloadKeyIfNecessary( lang, dict.getKey() );
-            cacheable.reloadAllIfNecessary( lang );
+            cacheable.reloadAllIfNecessary( lang, keys );
+            notifyChanged( lang, keys );
             return true;
         }
         return false;
@@ -125,10 +257,12 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
     public boolean addBatch( @Nullable Locale locale, @NonNull List<Dictionary> dictionaries ) {
         Assert.notEmpty( dictionaries, "Dictionary entries cannot be null or empty" );
         String lang = bridge.toLanguage( locale );
-        String table = bridge.props().getDictTable( lang );
+        TableScope table = updateable.dictScope( lang );
         if ( updateable.insertBatch( table, dictionaries ) > 0 ) {
+            Set<String> keys = collectKeys( dictionaries, toSet() );
             reloadKeys( lang, dictionaries );
-            cacheable.reloadAllIfNecessary( lang );
+            cacheable.reloadAllIfNecessary( lang, keys );
+            notifyChanged( lang, keys );
             return true;
         }
         return false;
@@ -143,7 +277,7 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
         Dictionary original = queryable.queryById( lang, dict.getId() );
         Assert.notNull( original, "The dictionary dose not exsit ( id: " + dict.getId() + " )" );
 
-        String table = bridge.props().getDictTable( lang );
+        TableScope table = updateable.dictScope( lang );
         int updated = updateable.update( table, dict );
         if ( updated > 0 ) {
             String updatedKey = dict.getKey();
@@ -152,7 +286,9 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
             if ( !Objects.equals( updatedKey, originalKey ) ) {
                 cacheable.reloadKeyIfNecessary( lang, originalKey );
             }
-            cacheable.reloadAllIfNecessary( lang );
+            List<String> keys = Arrays.asList( updatedKey, originalKey );
+            cacheable.reloadAllIfNecessary( lang, keys );
+            notifyChanged( lang, keys );
         }
         return updated;
     }
@@ -171,7 +307,7 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
         List<Long> ids = dictionaries.stream().map( Dictionary::getId ).distinct().collect( toList() );
         List<Dictionary> originals = queryable.queryByIds( lang, ids );
 
-        String table = bridge.props().getDictTable( lang );
+        TableScope table = updateable.dictScope( lang );
         int updated = updateable.updateBatch( table, dictionaries );
         if ( updated > 0 ) {
             Set<String> updatedKeys = collectKeys( dictionaries, toSet() );
@@ -181,7 +317,8 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
             if ( !isEmpty( updatedKeys ) ) {
                 updatedKeys.forEach( key -> cacheable.reloadKeyIfNecessary( lang, key ) );
             }
-            cacheable.reloadAllIfNecessary( lang );
+            cacheable.reloadAllIfNecessary( lang, updatedKeys );
+            notifyChanged( lang, updatedKeys );
         }
         return updated;
     }
@@ -194,14 +331,19 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
     
     @Override
     public int changeAll( @NonNull String key, @Nullable Integer code, boolean status ) {
-        int updated = 0;
-        List<Language> languages = cacheable.loadLanguages();
-        if ( !isEmpty( languages ) ) {
-            for ( Language language : languages ) {
-                updated += change( bridge.toLanguage( language.getLang() ), key, code, status );
+        Assert.notNull( key, "Please specify a dictionary key" );
+        if ( bridge.props().isSingleTable() ) {
+            // The default partition is not a translation, just like the default table in table-per-language mode
+            DictionaryProperties props = bridge.props();
+            TableScope table = TableScope.excluding( props.getDictTable( null ), props.getLangColumn(), null );
+            int updated = change( table, key, code, status, true );
+            if ( updated > 0 ) {
+                refreshAll( "reload \"" + key + "\"", key );
             }
+            return updated;
         }
-        return updated;
+        return mutateAll( "change \"" + key + "\"", key,
+                language -> change( updateable.dictScope( language ), key, code, status, true ) );
     }
 
     @Override
@@ -212,22 +354,27 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
     
     @Override
     public int removeAll( @NonNull String key, @Nullable Integer code ) {
-        int result = 0;
-        List<Language> languages = cacheable.loadLanguages();
-        if ( !isEmpty( languages ) ) {
-            for ( Language language : languages ) {
-                result += remove( bridge.toLanguage( language.getLang() ), key, code );
+        Assert.notNull( key, "Please specify a dictionary key" );
+        if ( bridge.props().isSingleTable() ) {
+            // The default partition is not a translation, just like the default table in table-per-language mode
+            DictionaryProperties props = bridge.props();
+            TableScope table = TableScope.excluding( props.getDictTable( null ), props.getLangColumn(), null );
+            int updated = remove( table, key, code, true );
+            if ( updated > 0 ) {
+                refreshAll( "reload \"" + key + "\"", key );
             }
+            return updated;
         }
-        return result;
+        return mutateAll( "remove \"" + key + "\"", key,
+                language -> remove( updateable.dictScope( language ), key, code, true ) );
     }
 
     @Override
     public boolean addLanguage( @NonNull Language language ) {
         Assert.notNull( language, "Language entry cannot be null" );
         DictionaryProperties props = bridge.props();
-        boolean updated = updateable.insert( props.getLanguageTable(), language ) > 0;
-        if ( updated ) {
+        boolean updated = updateable.insert( TableScope.of( props.getLanguageTable() ), language ) > 0;
+        if ( updated && !props.isSingleTable() ) {
             String source = props.getDictTable( null );
             String target = props.getDictTable( bridge.toLanguage( language.getLang() ) );
             updateable.update( bridge.sql().copyTable( source, target ) );
@@ -239,7 +386,7 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
     public int updateLanguage( @NonNull Language language ) {
         Assert.notNull( language, "Language entry cannot be null" );
         Assert.notNull( language.getId(), "Language entry id cannot be null" );
-        return updateable.update( bridge.props().getLanguageTable(), language );
+        return updateable.update( TableScope.of( bridge.props().getLanguageTable() ), language );
     }
 
     @Override
@@ -252,9 +399,19 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
             return statement.executeUpdate();
         } );
         String lang = bridge.toLanguage( locale );
-        sql = bridge.sql().drop( props.getDictTable( lang ) );
-        updated += updateable.update( sql );
+        if ( props.isSingleTable() ) {
+            TableScope table = updateable.dictScope( lang );
+            sql = bridge.sql().delete( table.name(), table.where() );
+            updated += updateable.execute( 0, sql, statement -> {
+                table.bind( statement, 1 );
+                return statement.executeUpdate();
+            } );
+        } else {
+            sql = bridge.sql().drop( props.getDictTable( lang ) );
+            updated += updateable.update( sql );
+        }
         cacheable.clearLanguage( lang );
+        notifyChanged( lang, null );
         return updated;
     }
 
@@ -268,60 +425,411 @@ public abstract class AbstractDictManager<K> extends CacheableResolver<K> implem
                 "The target language cannot be the same as the source language" );
         Assert.state( existsLanguage( target ), "You need to add \"" + sourceLang + "\" language first" );
         SqlResolver resolver = bridge.sql();
-        String sourceTable = bridge.props().getDictTable( sourceLang );
-        String targetTable = bridge.props().getDictTable( targetLang );
+        DictionaryProperties props = bridge.props();
+        if ( props.isSingleTable() ) {
+            TableScope from = updateable.dictScope( sourceLang );
+            TableScope to = updateable.dictScope( targetLang );
+            List<String> columns = updateable.properties( Dictionary.class ).stream().map( BeanProperty::getColumn )
+                    .collect( toList() );
+            String sql = resolver.copyPartition( from.name(), from.column(), columns );
+            boolean copied = updateable.execute( 0, sql, statement -> {
+                statement.setObject( 1, to.language() );
+                statement.setObject( 2, from.language() );
+                return statement.executeUpdate();
+            } ) > 0;
+            if ( copied ) {
+                notifyChanged( targetLang, null );
+            }
+            return copied;
+        }
+        String sourceTable = props.getDictTable( sourceLang );
+        String targetTable = props.getDictTable( targetLang );
         updateable.update( resolver.copyTable( sourceTable, targetTable ) );
-        return updateable.update( resolver.copyData( sourceTable, targetTable ) ) > 0;
+        boolean copied = updateable.update( resolver.copyData( sourceTable, targetTable ) ) > 0;
+        if ( copied ) {
+            notifyChanged( targetLang, null );
+        }
+        return copied;
     }
 
     @Override
     public boolean existsLanguage( @NonNull Locale source ) {
         Assert.notNull( source, "Please specify a language" );
+        SqlResolver resolver = bridge.sql();
+        if ( bridge.props().isSingleTable() ) {
+            String sql = resolver.query( bridge.props().getLanguageTable(), "lang" );
+            return queryable.execute( false, sql, statement -> {
+                statement.setObject( 1, source.toLanguageTag() );
+                return statement.executeQuery().next();
+            } );
+        }
         String language = bridge.toLanguage( source );
         String langTable = bridge.props().getDictTable( language );
-        String sql = bridge.sql().check( langTable );
+        String sql = resolver.check( langTable );
         return queryable.execute( false, sql, statement -> {
-            statement.executeQuery();
-            return true;
+            resolver.bindCheck( statement, langTable );
+            return resolver.exists( statement.executeQuery() );
         } );
     }
 
+    /**
+     * Add a listener which is notified after the dictionaries have been changed
+     * 
+     * @param listener the dictionary change listener
+     */
+    public void addListener( @NonNull DictionaryChangeListener listener ) {
+        Assert.notNull( listener, "The listener cannot be null" );
+        listeners.add( listener );
+    }
+
+    /**
+     * Notify all listeners that the dictionaries of the language have been changed
+     * 
+     * @param language the changed language, {@code null} means default.
+     * @param keys     the changed dictionary keys, {@code null} means all keys of the language.
+     */
+    protected void notifyChanged( String language, Collection<String> keys ) {
+        bridge.recorder().invalidate( backend(), language, keys );
+        for ( DictionaryChangeListener listener : listeners ) {
+            try {
+                listener.onChanged( language, keys );
+            } catch ( RuntimeException e ) {
+                Helper.LOG.error( "Dictionary change listener failed: " + e.getMessage(), e );
+            }
+        }
+    }
+
+    /**
+     * Load the dictionaries of the default language and all other languages into the cache
+     * 
+     * @see #warmUp(Collection)
+     */
+    public void warmUp() {
+        warmUp( null );
+    }
+
+    /**
+     * Load the dictionaries of the default language and the given languages into the cache concurrently, including
+     * the all list, the dictionaries and code index of each key, and the expanded tree of each language. If all
+     * languages share one dictionary table, they are read with one ordered scan instead of one query per language.
+     * 
+     * @param languages the languages to load, {@code null} or empty means all languages.
+     * @return the number of loaded dictionaries of each language, the default language is {@code null}.
+     */
+    public Map<String, Integer> warmUp( @Nullable Collection<String> languages ) {
+        Map<String, List<Dictionary>> partitions = bridge.props().isSingleTable() ? queryable.queryPartitions() : null;
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        Map<String, Integer> results = executor.invokeAll( targets( languages ), language -> {
+            List<Dictionary> dicts = partitions == null ? cacheable.queryAll( explicit( language ) )
+                    : partitions.getOrDefault( language, Collections.emptyList() );
+            prime( language, dicts );
+            return dicts == null ? 0 : dicts.size();
+        }, failures );
+        LanguageExecutor.rethrow( "warm up the dictionaries", failures );
+        return results;
+    }
+
+    /**
+     * Restore the dictionaries of the snapshot file into the cache, so that they are served without querying the
+     * database. The snapshot should be synchronized with the database afterwards.
+     * 
+     * @param file the snapshot file
+     * @return whether the snapshot is restored, {@code false} if the file does not exist or cannot be used.
+     * @see #synchronizeSnapshot(Path, Collection)
+     */
+    public boolean restoreSnapshot( @NonNull Path file ) {
+        Assert.notNull( file, "The snapshot file cannot be null" );
+        SnapshotFile snapshot;
+        try {
+            snapshot = SnapshotFile.read( file, snapshotSource() );
+        } catch ( IOException | RuntimeException e ) {
+            Helper.LOG.warn( "Failed to read the dictionary snapshot: " + e.getMessage(), e );
+            return false;
+        }
+        if ( snapshot == null ) {
+            return false;
+        }
+        cacheable.primeLanguages( snapshot.languages );
+        Set<String> allKeys = new HashSet<>();
+        snapshot.partitions.values().forEach( partition -> allKeys.addAll( collectKeys( partition.dictionaries, toSet() ) ) );
+        snapshot.partitions.forEach( ( language, partition ) -> {
+            Set<String> absent = new HashSet<>( allKeys );
+            absent.removeAll( collectKeys( partition.dictionaries, toSet() ) );
+            cacheable.primeAbsent( explicit( language ), absent );
+            prime( language, partition.dictionaries );
+            restored.put( explicit( language ), partition );
+        } );
+        if ( bridge.isLogEnable() ) {
+            bridge.printLog( "Restored the dictionaries of {} languages from the snapshot: {}", restored.size(), file );
+        }
+        return true;
+    }
+
+    /**
+     * Compare the watermark of each language with the database, reload the languages which have been changed since the
+     * snapshot was taken or were not in it, and then write a fresh snapshot file.
+     * 
+     * @param file      the snapshot file
+     * @param languages the languages of the snapshot, {@code null} or empty means all languages.
+     * @return the number of reloaded dictionaries of each reloaded language, the default language is {@code null}.
+     */
+    public Map<String, Integer> synchronizeSnapshot( @NonNull Path file, @Nullable Collection<String> languages ) {
+        Assert.notNull( file, "The snapshot file cannot be null" );
+        cacheable.clearLanguages();
+        List<Language> languageList = cacheable.loadLanguages();
+        Map<String, Integer> reloaded = Collections.synchronizedMap( new LinkedHashMap<>() );
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        Map<String, SnapshotFile.Partition> partitions = executor.invokeAll( targets( languages ), language -> {
+            String lang = explicit( language );
+            String watermark = queryable.queryWatermark( lang );
+            SnapshotFile.Partition previous = restored.remove( lang );
+            if ( watermark != null && previous != null && watermark.equals( previous.watermark ) ) {
+                return previous;
+            }
+            List<Dictionary> dicts = cacheable.queryAll( lang );
+            Set<String> keys = prime( language, dicts );
+            if ( previous != null ) {
+                // Swap in the fresh data, and then remove the keys which no longer exist
+                for ( String key : collectKeys( previous.dictionaries, toSet() ) ) {
+                    if ( !keys.contains( key ) ) {
+                        cacheable.clear( cacheable.keyWithLanguage( cacheable.toCacheKey( key ), lang ) );
+                    }
+                }
+                notifyChanged( isEmpty( lang ) ? null : lang, null );
+            }
+            reloaded.put( language, dicts == null ? 0 : dicts.size() );
+            return watermark == null || dicts == null ? null : new SnapshotFile.Partition( watermark, dicts );
+        }, failures );
+        restored.clear();
+        partitions.values().removeIf( Objects::isNull );
+        try {
+            new SnapshotFile( snapshotSource(), languageList == null ? Collections.emptyList() : languageList,
+                    partitions ).write( file );
+            if ( bridge.isLogEnable() ) {
+                bridge.printLog( "Wrote the dictionaries of {} languages into the snapshot: {}", partitions.size(), file );
+            }
+        } catch ( IOException e ) {
+            Helper.LOG.warn( "Failed to write the dictionary snapshot: " + e.getMessage(), e );
+        }
+        LanguageExecutor.rethrow( "synchronize the dictionary snapshot", failures );
+        return reloaded;
+    }
+
+    /**
+     * Load the dictionaries of the language into the cache if they are not cached yet
+     * 
+     * @param language the language, {@code null} means default.
+     */
+    public void warm( @Nullable String language ) {
+        String lang = explicit( language );
+        cacheable.loadAll( lang );
+        cacheable.expandAll( lang );
+    }
+
+    /**
+     * Reload the cached dictionaries of the language from the database
+     * 
+     * @param language the language, {@code null} means default.
+     * @param keys     the dictionary keys, {@code null} means the keys of the cached all list.
+     */
+    public void refresh( @Nullable String language, @Nullable Collection<String> keys ) {
+        String lang = explicit( language );
+        if ( keys == null ) {
+            cacheable.evict( lang, cachedKeys( lang ) );
+            warm( language );
+        } else {
+            cacheable.refresh( lang, keys );
+        }
+        notifyChanged( isEmpty( lang ) ? null : lang, keys );
+    }
+
+    /**
+     * Remove the cached dictionaries of the language, they are loaded again on the next access
+     * 
+     * @param language the language, {@code null} means default.
+     * @param keys     the dictionary keys, {@code null} means the keys of the cached all list.
+     */
+    public void evict( @Nullable String language, @Nullable Collection<String> keys ) {
+        String lang = explicit( language );
+        cacheable.evict( lang, keys == null ? cachedKeys( lang ) : keys );
+        notifyChanged( isEmpty( lang ) ? null : lang, keys );
+    }
+
+    /**
+     * @param language the language, {@code null} means default.
+     * @return the cached all list of the language, or {@code null} if it is not cached.
+     */
+    public List<Dictionary> cachedAll( @Nullable String language ) {
+        return cacheable.peekAll( explicit( language ) );
+    }
+
+    /**
+     * @param withDefault whether to include the default language( {@code null} )
+     * @return all languages of the dictionaries
+     */
+    public List<String> languages( boolean withDefault ) {
+        List<Language> languages = cacheable.loadLanguages();
+        List<String> results = new ArrayList<>( isEmpty( languages ) ? 1 : languages.size() + 1 );
+        if ( withDefault ) {
+            results.add( null );
+        }
+        if ( !isEmpty( languages ) ) {
+            for ( Language language : languages ) {
+                results.add( bridge.toLanguage( language.getLang() ) );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Put the all list of the language into the cache, as well as the dictionaries and code index of each key, and
+     * then build the expanded tree.
+     * 
+     * @param language the language, {@code null} means default.
+     * @param dicts    the all list of the language, it is loaded as usual if it is {@code null}.
+     * @return the dictionary keys of the language
+     */
+    private Set<String> prime( String language, List<Dictionary> dicts ) {
+        String lang = explicit( language );
+        Set<String> keys = cacheable.prime( lang, dicts );
+        if ( keys.isEmpty() ) {
+            // No dictionaries of its own, resolve the all list with the language fallback
+            cacheable.loadAll( lang );
+        }
+        if ( isByReference() ) {
+            for ( String key : keys ) {
+                index( language, key );
+            }
+        }
+        cacheable.expandAll( lang );
+        return keys;
+    }
+
+    /**
+     * @param languages the languages, {@code null} or empty means all languages.
+     * @return the default language and the given languages which exist
+     */
+    private List<String> targets( Collection<String> languages ) {
+        List<String> targets = languages( true );
+        if ( !isEmpty( languages ) ) {
+            Set<String> includes = languages.stream().map( bridge::toLanguage ).collect( toSet() );
+            targets.removeIf( language -> language != null && !includes.contains( language ) );
+        }
+        return targets;
+    }
+
+    /**
+     * A snapshot is only restored into the same dictionary tables
+     */
+    private String snapshotSource() {
+        DictionaryProperties props = bridge.props();
+        return props.getStorageMode() + ":" + props.getDictTable( null ) + ":" + props.getLanguageTable();
+    }
+
+    private Set<String> cachedKeys( String lang ) {
+        List<Dictionary> dicts = cacheable.peekAll( lang );
+        return isEmpty( dicts ) ? Collections.emptySet() : collectKeys( dicts, toSet() );
+    }
+
+    /**
+     * The empty string targets the default language explicitly, while {@code null} means the language of the
+     * current request in the cache manager.
+     */
+    private String explicit( String language ) {
+        return language == null ? "" : bridge.toLanguage( language );
+    }
+
     private int change( String language, String key, Integer code, boolean enabled ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().update( table, bridge.props().wrap( "enabled" ) + " = ?",
-                code == null ? CONDITIONS_KEY : CONDITIONS_KEY_AND_CODE );
-        int updated = updateable.execute( 0, sql, statement -> {
+        int updated = change( updateable.dictScope( language ), key, code, enabled, false );
+        if ( updated > 0 ) {
+            cacheable.refresh( language, Collections.singleton( key ) );
+            notifyChanged( language, Collections.singleton( key ) );
+        }
+        return updated;
+    }
+
+    /**
+     * @param strict whether to throw the database errors, the statements of all languages report their failures.
+     */
+    private int change( TableScope table, String key, Integer code, boolean enabled, boolean strict ) {
+        // The update time moves the watermark of the language, see QueryableManager#queryWatermark
+        String expression = bridge.sql().wrap( "enabled" ) + " = ?, " + bridge.sql().wrap( "update_time" ) + " = ?";
+        String sql = table.exclude( bridge.sql().update( table.name(), expression,
+                table.where( code == null ? CONDITIONS_KEY : CONDITIONS_KEY_AND_CODE ) ), bridge.sql() );
+        LocalDateTime now = LocalDateTime.now();
+        SqlProvider<PreparedStatement, Integer> provider = statement -> {
             statement.setObject( 1, enabled ? 1 : 0 ); // enabled
-            statement.setObject( 2, key ); // key
+            statement.setObject( 2, now ); // update_time
+            statement.setObject( 3, key ); // key
             if ( code != null ) {
-                statement.setObject( 3, code ); // code
+                statement.setObject( 4, code ); // code
             }
+            table.bind( statement, code == null ? 4 : 5 );
             return statement.executeUpdate();
-        } );
+        };
+        return strict ? updateable.executeStrictly( 0, sql, provider ) : updateable.execute( 0, sql, provider );
+    }
+
+    private int remove( String language, String key, Integer code ) {
+        int updated = remove( updateable.dictScope( language ), key, code, false );
         if ( updated > 0 ) {
-            cacheable.reloadKeyIfNecessary( language, key );
-            cacheable.reloadAllIfNecessary( language );
+            cacheable.refresh( language, Collections.singleton( key ) );
+            notifyChanged( language, Collections.singleton( key ) );
         }
         return updated;
     }
 
-    private int remove( String language, String key, Integer code ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().delete( table, code == null ? CONDITIONS_KEY : CONDITIONS_KEY_AND_CODE );
-        int updated = updateable.execute( 0, sql, statement -> {
+    private int remove( TableScope table, String key, Integer code, boolean strict ) {
+        String sql = table.exclude( bridge.sql().delete( table.name(),
+                table.where( code == null ? CONDITIONS_KEY : CONDITIONS_KEY_AND_CODE ) ), bridge.sql() );
+        SqlProvider<PreparedStatement, Integer> provider = statement -> {
             statement.setObject( 1, key ); // key
             if ( code != null ) {
                 statement.setObject( 2, code ); // code
             }
+            table.bind( statement, code == null ? 2 : 3 );
             return statement.executeUpdate();
-        } );
-        if ( updated > 0 ) {
-            cacheable.reloadKeyIfNecessary( language, key );
-            cacheable.reloadAllIfNecessary( language );
+        };
+        return strict ? updateable.executeStrictly( 0, sql, provider ) : updateable.execute( 0, sql, provider );
+    }
+
+    /**
+     * Run the statement of each language concurrently, and then rebuild the cache of the changed languages once.
+     */
+    private int mutateAll( String operation, String key, Function<String, Integer> mutation ) {
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        Map<String, Integer> results = executor.invokeAll( languages( false ), mutation, failures );
+        List<String> changed = results.entrySet().stream().filter( entry -> entry.getValue() > 0 ).map(
+                Entry::getKey ).collect( toList() );
+        if ( !changed.isEmpty() ) {
+            executor.invokeAll( changed, language -> {
+                cacheable.refresh( explicit( language ), Collections.singleton( key ) );
+                notifyChanged( language, Collections.singleton( key ) );
+                return null;
+            }, failures );
+        }
+        LanguageExecutor.rethrow( operation, failures );
+        int updated = 0;
+        for ( Integer result : results.values() ) {
+            updated += result;
         }
         return updated;
     }
 
+    /**
+     * Rebuild the cache of all languages except the default one concurrently
+     */
+    private void refreshAll( String operation, String ... keys ) {
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        List<String> keyList = Arrays.asList( keys );
+        executor.invokeAll( languages( false ), language -> {
+            cacheable.refresh( explicit( language ), keyList );
+            notifyChanged( language, keyList );
+            return null;
+        }, failures );
+        LanguageExecutor.rethrow( operation, failures );
+    }
+
     private List<Dictionary> filter( List<Dictionary> dicts ) {
         if ( !isEmpty( dicts ) ) {
             return dicts.stream().filter( Dictionary::enabled ).collect( Collectors.toList() );
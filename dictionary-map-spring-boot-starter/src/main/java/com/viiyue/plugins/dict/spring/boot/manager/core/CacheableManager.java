@@ -20,11 +20,15 @@ import static java.util.Collections.emptyMap;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
@@ -35,6 +39,7 @@ import org.springframework.util.Assert;
 import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
 import com.viiyue.plugins.dict.spring.boot.meta.Language;
 import com.viiyue.plugins.dict.spring.boot.meta.ParameterBridge;
+import com.viiyue.plugins.dict.spring.boot.metrics.DictionaryRecorder;
 
 /**
  * An abstract data cache manager for operating data and caching results
@@ -49,6 +54,7 @@ class CacheableManager<K> extends AbstractManager {
 
     private final QueryableManager queryable;
     private final CacheableResolver<K> valueResolver;
+    private final Map<String, ExpandedTree> trees = new ConcurrentHashMap<>( 16 );
     final String delimiter, cacheKey, cacheAll, expandAll, languageListKey;
 
     public CacheableManager( ParameterBridge bridge, QueryableManager queryable, CacheableResolver<K> valueResolver,
@@ -77,19 +83,44 @@ class CacheableManager<K> extends AbstractManager {
 
     public void clearLanguage( String language ) {
         valueResolver.clearLanguage( language );
+        // The empty language matches the cache keys of all languages
+        if ( isEmpty( language ) ) {
+            trees.clear();
+        } else {
+            trees.remove( language );
+        }
     }
 
     public List<Language> loadLanguages() {
         Object cachedValue = valueResolver.getValue( languageListKey );
         if ( cachedValue == null ) {
+            long start = System.nanoTime();
             cachedValue = queryable.queryLanguages();
+            recordLoad( "languages", null, null, cachedValue, start );
             valueResolver.setValue( ( K ) languageListKey, cachedValue );
         }
         return ( List<Language> ) cachedValue;
     }
 
     public List<Dictionary> loadAll( String lang ) {
+        return loadAll( lang, null );
+    }
+
+    /**
+     * Load the all list of the language, falling back to the parent languages and the default language if the language
+     * has none of its own
+     * 
+     * @param lang     the language, {@code null} means the language of the current request, the empty string means
+     *                 default.
+     * @param resolved receives the language which the list is read from at its first element, {@code null} means
+     *                 default, or {@code null} if it is not needed.
+     * @return the all list
+     */
+    public List<Dictionary> loadAll( String lang, String [] resolved ) {
         return bridge.fallbackWithLanguage( lang, language -> {
+            if ( resolved != null ) {
+                resolved[ 0 ] = language; // The last language tried
+            }
             K languageKey = keyWithLanguage( cacheAll, language );
             Object cachedValue = loadAllObject( language, languageKey, true );
             if ( cachedValue != null ) {
@@ -99,26 +130,216 @@ class CacheableManager<K> extends AbstractManager {
         } );
     }
 
+    /**
+     * Query the all list of the language from the database without caching it
+     * 
+     * @param lang the language, the empty string means default.
+     * @return the all list, or {@code null} if it cannot be queried.
+     */
+    public List<Dictionary> queryAll( String lang ) {
+        long start = System.nanoTime();
+        List<Dictionary> dicts = queryable.queryAll( lang );
+        recordLoad( "all", lang, null, dicts, start );
+        return dicts;
+    }
+
+    /**
+     * Clear the cached language list, so that it is queried again on the next access
+     * 
+     * @return whether the language list was cached
+     */
+    @SuppressWarnings( "unchecked" )
+    public boolean clearLanguages() {
+        return valueResolver.clear( ( K ) languageListKey );
+    }
+
+    /**
+     * Put the language list into the cache directly
+     * 
+     * @param languages the language list
+     */
+    @SuppressWarnings( "unchecked" )
+    public void primeLanguages( List<Language> languages ) {
+        valueResolver.setValue( ( K ) languageListKey, languages );
+    }
+
+    /**
+     * Put the all list of the language into the cache, as well as the dictionaries of each key grouped from it, so that
+     * the keys are not loaded one by one from the database later
+     * 
+     * @param lang  the language, the empty string means default.
+     * @param dicts the all list of the language, nothing is primed if it is {@code null}.
+     * @return the primed dictionary keys, empty if the language has no dictionaries of its own.
+     */
+    public Set<String> prime( String lang, List<Dictionary> dicts ) {
+        if ( dicts == null ) {
+            return Collections.emptySet();
+        }
+        valueResolver.setValue( keyWithLanguage( cacheAll, lang ), dicts );
+        Map<String, List<Dictionary>> groups = new LinkedHashMap<>( 64 );
+        for ( Dictionary dict : dicts ) {
+            if ( dict.getKey() != null ) {
+                groups.computeIfAbsent( dict.getKey(), key -> new ArrayList<>( 8 ) ).add( dict );
+            }
+        }
+        for ( Entry<String, List<Dictionary>> entry : groups.entrySet() ) {
+            valueResolver.setValue( keyWithLanguage( toCacheKey( entry.getKey() ), lang ), entry.getValue() );
+        }
+        return groups.keySet();
+    }
+
+    /**
+     * Cache the keys which the language does not have as empty, just like they were queried from the database, so
+     * that looking them up falls back to the default language without hitting the database.
+     *
+     * @param lang the language, the empty string means default.
+     * @param keys the absent dictionary keys
+     */
+    public void primeAbsent( String lang, Collection<String> keys ) {
+        for ( String key : keys ) {
+            valueResolver.setValue( keyWithLanguage( toCacheKey( key ), lang ), new ArrayList<Dictionary>( 0 ) );
+        }
+    }
+
+    /**
+     * Read the cached all list of the language without loading it
+     * 
+     * @param lang the language, the empty string means default.
+     * @return the cached all list, or {@code null} if it is not cached.
+     */
+    public List<Dictionary> peekAll( String lang ) {
+        Object cachedValue = readObject( lang, keyWithLanguage( cacheAll, lang ), true, null );
+        return cachedValue instanceof List ? theList( cachedValue ) : null;
+    }
+
+    /**
+     * Remove the cached keys of the language, as well as its all list and expanded list
+     * 
+     * @param lang the language, the empty string means default.
+     * @param keys the dictionary keys
+     */
+    public void evict( String lang, Collection<String> keys ) {
+        for ( String key : keys ) {
+            valueResolver.clear( keyWithLanguage( toCacheKey( key ), lang ) );
+        }
+        valueResolver.clear( keyWithLanguage( cacheAll, lang ) );
+        clearExpanded( lang, keyWithLanguage( expandAll, lang ) );
+    }
+
     public void reloadAllIfNecessary( String lang ) {
+        reloadAllIfNecessary( lang, null );
+    }
+
+    /**
+     * Reload the all list of the language if it is cached, and update the branches of the changed keys in its expanded
+     * tree, or rebuild the tree if it cannot be updated in place.
+     * 
+     * @param lang the language, {@code null} means default.
+     * @param keys the changed dictionary keys, {@code null} means unknown.
+     */
+    public void reloadAllIfNecessary( String lang, Collection<String> keys ) {
         // All list
         K allKey = keyWithLanguage( cacheAll, lang );
         if ( valueResolver.clear( allKey ) ) {
-            loadAll( lang );
+            long start = System.nanoTime();
+            List<Dictionary> dicts = loadAll( lang );
+            bridge.recorder().reload( valueResolver.backend(), lang, null, dicts.size(), System.nanoTime() - start );
         }
         // Expanded list
-        allKey = keyWithLanguage( expandAll, lang );
-        if ( valueResolver.clear( allKey ) ) {
+        K expandKey = keyWithLanguage( expandAll, lang );
+        if ( keys != null && updateExpanded( lang, keys, allKey, expandKey ) ) {
+            return;
+        }
+        if ( clearExpanded( lang, expandKey ) ) {
             expandAll( lang );
         }
     }
 
+    /**
+     * Clear the expanded list of the language together with the tree it is built from
+     * 
+     * @return whether the expanded list was cached
+     */
+    private boolean clearExpanded( String lang, K expandKey ) {
+        trees.remove( lang == null ? "" : lang );
+        return valueResolver.clear( expandKey );
+    }
+
+    /**
+     * The tree is only updated if the cached one is still the tree built by this manager, and the language has an all
+     * list of its own, otherwise it may be a reference to the tree of the fallback language, or has been replaced by
+     * another node.
+     */
+    private boolean updateExpanded( String lang, Collection<String> keys, K allKey, K expandKey ) {
+        Object expanded = valueResolver.getValue( expandKey );
+        Object allList = valueResolver.getValue( allKey );
+        if ( expanded == null || !( allList instanceof List ) || ( ( List<?> ) allList ).isEmpty() ) {
+            return false;
+        }
+        boolean [] updated = new boolean[ 1 ];
+        trees.computeIfPresent( lang == null ? "" : lang, ( language, tree ) -> {
+            if ( tree.expanded() != expanded ) {
+                return tree;
+            }
+            long start = System.nanoTime();
+            Map<String, List<Dictionary>> changes = ExpandedTree.group( ( List<Dictionary> ) allList, keys );
+            ExpandedTree newTree = tree.update( changes, bridge.props() );
+            valueResolver.setValue( expandKey, newTree.expanded() );
+            bridge.recorder().reload( valueResolver.backend(), lang, null, changes.size(), System.nanoTime() - start );
+            updated[ 0 ] = true;
+            return newTree;
+        } );
+        return updated[ 0 ];
+    }
+
+    /**
+     * Reload the changed keys of the language and rebuild the all list only once
+     * 
+     * @param lang the language, {@code null} means default.
+     * @param keys the changed dictionary keys
+     */
+    public void refresh( String lang, Collection<String> keys ) {
+        for ( String key : keys ) {
+            reloadKeyIfNecessary( lang, key );
+        }
+        reloadAllIfNecessary( lang, keys );
+    }
+
     public List<Dictionary> loadByKey( String lang, String key ) {
+        return loadByKey( lang, key, null );
+    }
+
+    /**
+     * Load the dictionaries of the key, falling back to the parent languages and the default language if the language
+     * has none of its own
+     * 
+     * @param lang     the language, {@code null} means the language of the current request, the empty string means
+     *                 default.
+     * @param key      the dictionary key
+     * @param resolved receives the language which the dictionaries are read from at its first element, {@code null}
+     *                 means default, or {@code null} if it is not needed.
+     * @return the dictionaries
+     */
+    public List<Dictionary> loadByKey( String lang, String key, String [] resolved ) {
         Assert.notNull( key, "The cache key cannot be null" );
+        DictionaryRecorder recorder = bridge.recorder();
+        long lookupStart = recorder == DictionaryRecorder.NONE ? 0 : System.nanoTime();
         String cacheKey = bridge.toCacheKey( null, key, delimiter );
-        return bridge.fallbackWithLanguage( lang, language -> {
+        String [] requested = new String[ 1 ];
+        boolean [] loaded = new boolean[ 1 ];
+        List<Dictionary> dicts = bridge.fallbackWithLanguage( lang, language -> {
+            if ( requested[ 0 ] == null ) {
+                requested[ 0 ] = language == null ? "" : language;
+            }
+            if ( resolved != null ) {
+                resolved[ 0 ] = language; // The last language tried
+            }
             K languageKey = keyWithLanguage( cacheKey, language );
             Object cachedValue = readObject( language, languageKey, true, () -> {
+                long start = System.nanoTime();
                 List<Dictionary> valueList = queryable.queryByKey( language, key );
+                recordLoad( "key", language, key, valueList, start );
+                loaded[ 0 ] = true;
                 if ( valueList != null ) {
                     valueResolver.setValue( languageKey, valueList );
                     makeReferenceIfNecessary( lang, cacheKey, languageKey );
@@ -130,25 +351,55 @@ class CacheableManager<K> extends AbstractManager {
             } );
             return theList( cachedValue );
         } );
+        if ( recorder != DictionaryRecorder.NONE ) {
+            recorder.lookup( valueResolver.backend(), isEmpty( requested[ 0 ] ) ? null : requested[ 0 ], key,
+                    !loaded[ 0 ], System.nanoTime() - lookupStart );
+        }
+        return dicts;
     }
 
     public void reloadKeyIfNecessary( String lang, String key ) {
         String cacheKey = toCacheKey( key );
         K keyWithLanguage = keyWithLanguage( cacheKey, lang );
         if ( valueResolver.clear( keyWithLanguage ) ) {
-            loadByKey( lang, key );
+            long start = System.nanoTime();
+            List<Dictionary> dicts = loadByKey( lang, key );
+            bridge.recorder().reload( valueResolver.backend(), lang, key, dicts.size(), System.nanoTime() - start );
         }
     }
 
     public Map<String, Object> expandAll( String lang ) {
+        return expandAll( lang, null );
+    }
+
+    /**
+     * Expand all dictionaries of the language, falling back to the parent languages and the default language if the
+     * language has none of its own
+     * 
+     * @param lang     the language, {@code null} means the language of the current request, the empty string means
+     *                 default.
+     * @param resolved receives the language which the tree is read from at its first element, {@code null} means
+     *                 default, or {@code null} if it is not needed.
+     * @return the expanded dictionaries
+     */
+    public Map<String, Object> expandAll( String lang, String [] resolved ) {
         return bridge.fallbackWithLanguage( lang, language -> {
+            if ( resolved != null ) {
+                resolved[ 0 ] = language; // The last language tried
+            }
             K languageKey = keyWithLanguage( expandAll, language );
             Object cachedValue = readObject( language, languageKey, true, () -> {
+                long start = System.nanoTime();
                 K allLanguageKey = keyWithLanguage( cacheAll, language );
                 Object valueList = loadAllObject( language, allLanguageKey, false );
                 if ( valueList != null ) {
-                    Map<String, Object> expanded = expandAll( ( List<Dictionary> ) valueList );
+                    ExpandedTree tree = ExpandedTree.build( ( List<Dictionary> ) valueList, bridge.props() );
+                    if ( valueResolver.isByReference() ) {
+                        trees.put( language == null ? "" : language, tree );
+                    }
+                    Map<String, Object> expanded = tree.expanded();
                     valueResolver.setValue( languageKey, expanded );
+                    recordLoad( "expand", language, null, valueList, start );
                     return expanded;
                 }
                 return null;
@@ -162,7 +413,9 @@ class CacheableManager<K> extends AbstractManager {
 
     private Object loadAllObject( String language, K languageKey, boolean revert ) {
         return readObject( language, languageKey, revert, () -> {
+            long start = System.nanoTime();
             Object dbList = queryable.queryAll( language );
+            recordLoad( "all", language, null, dbList, start );
             if ( dbList != null ) {
                 valueResolver.setValue( languageKey, dbList );
             }
@@ -181,55 +434,6 @@ class CacheableManager<K> extends AbstractManager {
         return cachedValue;
     }
 
-    private Map<String, Object> expandAll( List<Dictionary> dicts ) {
-        if ( isEmpty( dicts ) ) {
-            return Collections.emptyMap();
-        }
-        Map<String, Object> dictionary = new HashMap<>( 128 );
-        for ( Dictionary dict : dicts ) {
-            String key = dict.getKey();
-            Object element = dict.toObject( bridge.props() );
-            if ( element == null ) {
-                continue;
-            }
-            if ( !key.contains( "." ) ) {
-                dictionary.put( key, element );
-                continue;
-            }
-
-            String [] keys = key.split( "\\." );
-            Map<String, Object> last = dictionary;
-
-            // Create each layer of containers
-            int len = keys.length;
-            for ( int i = 0, size = len - 1; i < size; i ++ ) {
-                String namespace = keys[ i ];
-                Object tempMap = last.get( namespace );
-                if ( tempMap == null ) {
-                    last.put( namespace, last = new HashMap<String, Object>( 6 ) );
-                } else {
-                    last = ( Map<String, Object> ) tempMap;
-                }
-            }
-
-            // Put the data into the last container
-            String lastNamespace = keys[ len - 1 ];
-            Object lastObject = last.get( lastNamespace );
-            if ( lastObject == null ) {
-                last.put( lastNamespace, element );
-            } else if ( lastObject instanceof List ) {
-                List<Object> items = ( List<Object> ) lastObject;
-                items.add( element );
-            } else {
-                List<Object> items = new ArrayList<>( 6 );
-                items.add( lastObject );
-                items.add( element );
-                last.put( lastNamespace, items );
-            }
-        }
-        return dictionary;
-    }
-
     private final void refreshAllIfNecessary( List<Dictionary> dicts, Consumer<List<Dictionary>> changed ) {
         K allKey = keyWithLanguage( cacheAll, bridge.getLanguage() );
         if ( valueResolver.existsKey( allKey ) ) {
@@ -238,7 +442,7 @@ class CacheableManager<K> extends AbstractManager {
                 Map<Long, Dictionary> map = dicts.stream().collect( TO_MAP );
                 boolean isChanged = allList.stream().filter( dict -> {
                     Dictionary item = map.get( dict.getId() );
-                    return item != null && !item.equals( dict );
+                    return item != null && item.isChangedFrom( dict );
                 } ).count() > 0;
                 if ( isChanged ) {
                     List<Dictionary> changedList = allList.stream()
@@ -249,6 +453,11 @@ class CacheableManager<K> extends AbstractManager {
         }
     }
 
+    private void recordLoad( String operation, String language, String key, Object loaded, long start ) {
+        int rows = loaded instanceof Collection ? ( ( Collection<?> ) loaded ).size() : loaded == null ? 0 : 1;
+        bridge.recorder().load( valueResolver.backend(), operation, language, key, rows, System.nanoTime() - start );
+    }
+
     private List<Dictionary> theList( Object cached ) {
         return cached == null ? emptyList() : ( List<Dictionary> ) cached;
     }
@@ -272,7 +481,7 @@ class CacheableManager<K> extends AbstractManager {
         do {
             theKey = theValue == null ? specifiedKey : theValue;
             theValue = valueResolver.getValue( theKey );
-        } while ( isEmpty( theValue ) || theValue instanceof String );
+        } while ( theValue instanceof String );
         return returnKey ? theKey : theValue;
     }
 
@@ -33,4 +33,25 @@ public abstract class CacheableResolver<K> {
 
     public abstract void clearLanguage( String language );
     
+    /**
+     * @return the name of the cache backend, which is used to tag the records.
+     */
+    public String backend() {
+        return getClass().getSimpleName();
+    }
+    
+    /**
+     * @return whether the cached values are kept as they are, so that the same instances are read back.
+     */
+    public boolean isByReference() {
+        return false;
+    }
+    
+    /**
+     * @return the number of cached entries, or -1 if it cannot be counted cheaply.
+     */
+    public long size() {
+        return -1;
+    }
+    
 }
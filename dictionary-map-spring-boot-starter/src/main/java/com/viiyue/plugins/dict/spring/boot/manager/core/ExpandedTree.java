@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.manager.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.utils.StringPool;
+
+/**
+ * The persistent tree behind the expanded dictionaries, whose nodes are keyed by the segments of the dictionary keys.
+ * Updating some keys copies only the nodes on their paths and shares the others with the previous tree, so the cost
+ * scales with the size of the change, and the maps already handed out to the readers are never modified.
+ * 
+ * <p>
+ * The expanded map of a node is built from its children, a child with children of its own is expanded as a nested
+ * map, otherwise as the value of its dictionaries, which is the last one for a key without namespaces, or a list of
+ * all of them if there are more than one.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class ExpandedTree {
+
+    static final ExpandedTree EMPTY = new ExpandedTree( new Node( null ).publish( null ) );
+
+    private final Node root;
+
+    private ExpandedTree( Node root ) {
+        this.root = root;
+    }
+
+    /**
+     * Build the tree of all dictionaries of a language
+     * 
+     * @param dicts the all list of the language
+     * @param props the dictionary configuration
+     * @return the expanded tree
+     */
+    static ExpandedTree build( List<Dictionary> dicts, DictionaryProperties props ) {
+        return EMPTY.update( group( dicts, null ), props );
+    }
+
+    /**
+     * Group the dictionaries by key in the order of the list
+     * 
+     * @param dicts the dictionaries
+     * @param keys  the keys to group, {@code null} means all keys, the given keys without dictionaries are grouped
+     *              as empty lists.
+     * @return the dictionaries of each key
+     */
+    static Map<String, List<Dictionary>> group( List<Dictionary> dicts, Collection<String> keys ) {
+        Map<String, List<Dictionary>> groups = new LinkedHashMap<>( keys == null ? 128 : keys.size() << 1 );
+        if ( keys != null ) {
+            keys.forEach( key -> groups.put( key, new ArrayList<>( 8 ) ) );
+        }
+        for ( Dictionary dict : dicts ) {
+            String key = dict.getKey();
+            if ( key != null ) {
+                List<Dictionary> group = keys == null ? groups.computeIfAbsent( key, k -> new ArrayList<>( 8 ) )
+                        : groups.get( key );
+                if ( group != null ) {
+                    group.add( dict );
+                }
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * @return the expanded dictionaries, which must not be modified.
+     */
+    Map<String, Object> expanded() {
+        return root.expanded;
+    }
+
+    /**
+     * Derive a new tree with the dictionaries of some keys replaced
+     * 
+     * @param changes the new dictionaries of each changed key, an empty list removes the key.
+     * @param props   the dictionary configuration
+     * @return the new tree, this tree is left unchanged.
+     */
+    ExpandedTree update( Map<String, List<Dictionary>> changes, DictionaryProperties props ) {
+        if ( changes.isEmpty() ) {
+            return this;
+        }
+        // The nodes copied by this update are owned by it, and are modified in place until it is finished
+        Object edit = new Object();
+        Node root = this.root.editable( edit );
+        for ( Entry<String, List<Dictionary>> change : changes.entrySet() ) {
+            String key = change.getKey();
+            if ( key != null ) {
+                put( root, edit, key, 0, toValue( key, change.getValue(), props ) );
+            }
+        }
+        root.publish( edit );
+        return new ExpandedTree( root );
+    }
+
+    /**
+     * Put the value at the path of the key below the node, and remove the nodes which become empty
+     * 
+     * @return whether the node becomes empty
+     */
+    private static boolean put( Node node, Object edit, String key, int from, Object value ) {
+        int end = key.indexOf( '.', from );
+        String segment = StringPool.intern( end < 0 ? key.substring( from ) : key.substring( from, end ) );
+        Node child = node.children.get( segment );
+        if ( child == null ) {
+            if ( value == null ) {
+                return false;
+            }
+            child = new Node( edit );
+        } else {
+            child = child.editable( edit );
+        }
+        boolean empty;
+        if ( end < 0 ) {
+            child.value = value;
+            empty = value == null && child.children.isEmpty();
+        } else {
+            empty = put( child, edit, key, end + 1, value );
+        }
+        if ( empty ) {
+            node.children.remove( segment );
+        } else {
+            node.children.put( segment, child );
+        }
+        return node.value == null && node.children.isEmpty();
+    }
+
+    private static Object toValue( String key, List<Dictionary> dicts, DictionaryProperties props ) {
+        List<Object> values = new ArrayList<>( dicts.size() );
+        for ( Dictionary dict : dicts ) {
+            Object element = dict.toObject( props );
+            if ( element != null ) {
+                values.add( element );
+            }
+        }
+        if ( values.isEmpty() ) {
+            return null;
+        }
+        // The dictionaries of a key without namespaces replace each other
+        if ( values.size() == 1 || key.indexOf( '.' ) < 0 ) {
+            return values.get( values.size() - 1 );
+        }
+        return values;
+    }
+
+    private static final class Node {
+
+        private Object owner;
+        private Map<String, Node> children;
+        private Object value;
+        private Map<String, Object> expanded;
+
+        private Node( Object owner ) {
+            this.owner = owner;
+            this.children = new HashMap<>( 8 );
+        }
+
+        /**
+         * @return this node if it is owned by the edit, otherwise a copy of it which is owned by the edit.
+         */
+        private Node editable( Object edit ) {
+            if ( owner == edit ) {
+                return this;
+            }
+            Node copy = new Node( edit );
+            copy.children = new HashMap<>( children );
+            copy.value = value;
+            return copy;
+        }
+
+        /**
+         * Expand the nodes owned by the edit bottom-up, after which they are never modified again
+         */
+        private Node publish( Object edit ) {
+            Map<String, Object> expanded = new HashMap<>( Math.max( 8, children.size() << 1 ) );
+            for ( Entry<String, Node> entry : children.entrySet() ) {
+                Node child = entry.getValue();
+                if ( child.owner == edit ) {
+                    child.publish( edit );
+                }
+                // A node with children is expanded as a namespace even if it has a value of its own
+                expanded.put( entry.getKey(), child.children.isEmpty() ? child.value : child.expanded );
+            }
+            this.expanded = expanded.isEmpty() ? Collections.emptyMap() : expanded;
+            this.owner = null;
+            return this;
+        }
+
+    }
+
+}
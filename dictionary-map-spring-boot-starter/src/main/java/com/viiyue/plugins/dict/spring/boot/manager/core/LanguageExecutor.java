@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.manager.core;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Run the same task for several languages concurrently, the number of languages running at the same time is limited
+ * by the parallelism. Virtual threads are used if the runtime supports them, otherwise a bounded pool of daemon
+ * threads is used, whose idle threads are released automatically.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class LanguageExecutor {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final int parallelism;
+    private final Semaphore permits;
+    private volatile ExecutorService executor;
+
+    LanguageExecutor( int parallelism ) {
+        this.parallelism = Math.max( 1, parallelism );
+        this.permits = new Semaphore( this.parallelism );
+    }
+
+    /**
+     * Run the task for each language and wait for all of them to finish
+     *
+     * @param <R>       the result type
+     * @param languages the languages, {@code null} means default.
+     * @param task      the task of each language
+     * @param failures  the failures of each language are collected into it
+     * @return the results of the successful languages, in the order of the given languages.
+     */
+    <R> Map<String, R> invokeAll( Collection<String> languages, Function<String, R> task,
+            Map<String, Throwable> failures ) {
+        Map<String, R> results = new LinkedHashMap<>( languages.size() << 1 );
+        if ( parallelism == 1 || languages.size() <= 1 ) {
+            for ( String language : languages ) {
+                try {
+                    results.put( language, task.apply( language ) );
+                } catch ( RuntimeException | Error e ) {
+                    failures.put( language, e );
+                }
+            }
+            return results;
+        }
+        ExecutorService executor = executor();
+        List<Entry<String, Future<R>>> futures = new ArrayList<>( languages.size() );
+        for ( String language : languages ) {
+            Future<R> future = executor.submit( () -> {
+                permits.acquire();
+                try {
+                    return task.apply( language );
+                } finally {
+                    permits.release();
+                }
+            } );
+            futures.add( new SimpleImmutableEntry<>( language, future ) );
+        }
+        for ( Entry<String, Future<R>> entry : futures ) {
+            try {
+                results.put( entry.getKey(), entry.getValue().get() );
+            } catch ( ExecutionException e ) {
+                failures.put( entry.getKey(), e.getCause() );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                failures.put( entry.getKey(), e );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Throw an exception with all failures as suppressed exceptions if any language failed
+     *
+     * @param operation the operation name
+     * @param failures  the failures of each language
+     */
+    static void rethrow( String operation, Map<String, Throwable> failures ) {
+        if ( failures.isEmpty() ) {
+            return;
+        }
+        IllegalStateException exception = new IllegalStateException(
+                "Failed to " + operation + " in languages " + failures.keySet() );
+        failures.values().forEach( exception::addSuppressed );
+        throw exception;
+    }
+
+    private ExecutorService executor() {
+        ExecutorService executor = this.executor;
+        if ( executor == null ) {
+            synchronized ( this ) {
+                if ( ( executor = this.executor ) == null ) {
+                    this.executor = executor = newExecutor();
+                }
+            }
+        }
+        return executor;
+    }
+
+    private ExecutorService newExecutor() {
+        try {
+            // Java 21+
+            return ( ExecutorService ) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+        } catch ( ReflectiveOperationException e ) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor( parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread( runnable, "dictionary-language-" + COUNTER.incrementAndGet() );
+                        thread.setDaemon( true );
+                        return thread;
+                    } );
+            pool.allowCoreThreadTimeOut( true );
+            return pool;
+        }
+    }
+
+}
@@ -15,15 +15,23 @@
  */
 package com.viiyue.plugins.dict.spring.boot.manager.core;
 
+import static org.springframework.util.ObjectUtils.isEmpty;
+
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 import javax.sql.DataSource;
 
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
 import com.viiyue.plugins.dict.spring.boot.function.SqlConsumer;
 import com.viiyue.plugins.dict.spring.boot.meta.BaseEntity;
 import com.viiyue.plugins.dict.spring.boot.meta.BeanProperty;
@@ -49,45 +57,111 @@ class QueryableManager extends AbstractDbManager {
     }
 
     public Dictionary queryById( String language, Long id ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().query( table, "id" );
+        TableScope table = dictScope( language );
+        String sql = bridge.sql().query( table.name(), table.where( "id" ) );
         List<Dictionary> dictionaries = queryList( Dictionary.class, language, sql, Dictionary::new, statement -> {
             statement.setObject( 1, id );
+            table.bind( statement, 2 );
         } );
-        return dictionaries == null || dictionaries.size() >= 1 ? dictionaries.get( 0 ) : null;
+        return isEmpty( dictionaries ) ? null : dictionaries.get( 0 );
     }
 
     public List<Dictionary> queryByIds( String language, List<Long> ids ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().queryWithin( table, "id", ids.toArray() );
+        TableScope table = dictScope( language );
+        String sql = bridge.sql().queryWithin( table.name(), table.where(), "id", ids.toArray() );
         return queryList( Dictionary.class, language, sql, Dictionary::new, statement -> {
+            int index = table.bind( statement, 1 );
             for ( int i = 0, s = ids.size(); i < s; i ++ ) {
-                statement.setObject( i + 1, ids.get( i ) );
+                statement.setObject( index + i, ids.get( i ) );
             }
         } );
     }
 
     public final List<Dictionary> queryAll( String language ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().query( table );
-        return queryList( Dictionary.class, language, sql, Dictionary::new, null );
+        TableScope table = dictScope( language );
+        String sql = bridge.sql().query( table.name(), table.where() );
+        return queryList( Dictionary.class, language, sql, Dictionary::new, statement -> {
+            table.bind( statement, 1 );
+        } );
     }
 
     public final List<Dictionary> queryByKey( String language, String key ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().query( table, "key" );
+        TableScope table = dictScope( language );
+        String sql = bridge.sql().query( table.name(), table.where( "key" ) );
         return queryList( Dictionary.class, language, sql, Dictionary::new, statement -> {
             statement.setObject( 1, key );
+            table.bind( statement, 2 );
         } );
     }
 
     public final List<Dictionary> queryIn( String language, Object ... keys ) {
-        String table = bridge.props().getDictTable( language );
-        String sql = bridge.sql().queryWithin( table, "key", keys );
+        TableScope table = dictScope( language );
+        String sql = bridge.sql().queryWithin( table.name(), table.where(), "key", keys );
         return queryList( Dictionary.class, language, sql, Dictionary::new, statement -> {
+            int index = table.bind( statement, 1 );
             for ( int i = 0, len = keys.length; i < len; i ++ ) {
-                statement.setObject( i + 1, keys[ i ] );
+                statement.setObject( index + i, keys[ i ] );
+            }
+        } );
+    }
+
+    /**
+     * Query the watermark of the dictionaries of the language, which changes whenever a dictionary is added, removed,
+     * enabled, disabled or updated( as long as its update time is maintained ).
+     * 
+     * @param language the language, {@code null} means default.
+     * @return the watermark, or {@code null} if it cannot be queried.
+     */
+    public final String queryWatermark( String language ) {
+        TableScope table = dictScope( language );
+        String sql = bridge.sql().watermark( table.name(), table.where() );
+        return execute( null, sql, statement -> {
+            table.bind( statement, 1 );
+            try ( ResultSet result = statement.executeQuery() ) {
+                if ( !result.next() ) {
+                    return null;
+                }
+                Timestamp created = result.getTimestamp( 3 );
+                Timestamp updated = result.getTimestamp( 4 );
+                return result.getLong( 1 ) + ":" + result.getLong( 2 ) + ":"
+                        + ( created == null ? 0 : created.getTime() ) + ":" + ( updated == null ? 0 : updated.getTime() )
+                        + ":" + result.getLong( 5 );
+            }
+        } );
+    }
+
+    /**
+     * Query the dictionaries of all languages from the shared dictionary table with one ordered scan
+     * 
+     * @return the dictionaries grouped by language, the default language is grouped as {@code null}.
+     */
+    public final Map<String, List<Dictionary>> queryPartitions() {
+        DictionaryProperties props = bridge.props();
+        String column = props.getLangColumn();
+        String sql = bridge.sql().queryOrdered( props.getDictTable( null ), column, "key", "code" );
+        if ( bridge.isLogEnable() ) {
+            bridge.printLog( "Try Querying the data of all languages from the database ..." );
+        }
+        return execute( null, sql, statement -> {
+            ResultSet result = statement.executeQuery();
+            ResultSetMetaData metadata = result.getMetaData();
+            int columnCount = metadata.getColumnCount();
+            Map<String, List<Dictionary>> partitions = new LinkedHashMap<>( 16 );
+            List<Dictionary> dicts = null;
+            String current = null;
+            while ( result.next() ) {
+                String language = result.getString( column );
+                if ( dicts == null || !Objects.equals( current, language ) ) {
+                    current = language;
+                    dicts = new ArrayList<>( 64 );
+                    partitions.put( isEmpty( language ) ? null : language, dicts );
+                }
+                dicts.add( toBean( Dictionary.class, Dictionary::new, result, metadata, columnCount ) );
             }
+            if ( bridge.isLogEnable() ) {
+                bridge.printLog( "The data of {} languages were queried in the database.", partitions.size() );
+            }
+            return partitions;
         } );
     }
 
@@ -105,16 +179,7 @@ class QueryableManager extends AbstractDbManager {
             int columnCount = metadata.getColumnCount();
             List<T> dicts = new ArrayList<>( columnCount );
             while ( result.next() ) {
-                T instance = supplier.get();
-                for ( int i = 1; i <= columnCount; i ++ ) {
-                    String column = metadata.getColumnLabel( i );
-                    BeanProperty property = getProperty( beanType, column );
-                    if ( property != null ) {
-                        property.setValue( instance, result, i );
-                    }
-                }
-                instance.onConstruct();
-                dicts.add( instance );
+                dicts.add( toBean( beanType, supplier, result, metadata, columnCount ) );
             }
             if ( bridge.isLogEnable() ) {
                 int size = dicts.size();
@@ -128,4 +193,18 @@ class QueryableManager extends AbstractDbManager {
         } );
     }
 
+    private <T extends BaseEntity> T toBean( Class<?> beanType, Supplier<T> supplier, ResultSet result,
+            ResultSetMetaData metadata, int columnCount ) throws SQLException {
+        T instance = supplier.get();
+        for ( int i = 1; i <= columnCount; i ++ ) {
+            String column = metadata.getColumnLabel( i );
+            BeanProperty property = getProperty( beanType, column );
+            if ( property != null ) {
+                property.setValue( instance, result, i );
+            }
+        }
+        instance.onConstruct();
+        return instance;
+    }
+
 }
@@ -0,0 +1,269 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.manager.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.meta.Language;
+
+/**
+ * The binary snapshot file of the dictionaries of each language, which is read into a heap buffer at once, so that
+ * no mapping of the file is left behind to block it from being replaced.
+ * 
+ * <pre>
+ * magic( int ) version( short ) source( string ) created( long )
+ * languages( int ) { id( long ) lang( string ) label( string ) createTime( time ) }
+ * partitions( int ) { language( string ) watermark( string ) dictionaries( int ) {
+ *     id( long ) type( string ) key( string ) code( int ) alias( string ) text( string ) enabled( byte )
+ *     createTime( time ) updateTime( time ) } }
+ * checksum( int, CRC32 of all previous bytes )
+ * </pre>
+ * 
+ * The strings are written as the length of their UTF-8 bytes followed by the bytes, -1 means {@code null}. The times
+ * are written as the epoch seconds and nanoseconds in UTC, {@link Long#MIN_VALUE} means {@code null}.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x44435350; // "DCSP"
+    private static final short VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final long NULL_ID = Long.MIN_VALUE;
+
+    /** Where the snapshot comes from, a snapshot of another source is ignored. */
+    final String source;
+    final List<Language> languages;
+    /** The partitions of each language, the default language is {@code null}. */
+    final Map<String, Partition> partitions;
+
+    SnapshotFile( String source, List<Language> languages, Map<String, Partition> partitions ) {
+        this.source = source;
+        this.languages = languages;
+        this.partitions = partitions;
+    }
+
+    /**
+     * The dictionaries of one language and the watermark of the database when they were queried
+     */
+    static final class Partition {
+
+        final String watermark;
+        final List<Dictionary> dictionaries;
+
+        Partition( String watermark, List<Dictionary> dictionaries ) {
+            this.watermark = watermark;
+            this.dictionaries = dictionaries;
+        }
+
+    }
+
+    /**
+     * Read the snapshot file
+     * 
+     * @param file   the snapshot file
+     * @param source the expected source
+     * @return the snapshot, or {@code null} if the file does not exist, or it is written by another version or source.
+     * @throws IOException if the file cannot be read or it is corrupted
+     */
+    static SnapshotFile read( Path file, String source ) throws IOException {
+        if ( !Files.isRegularFile( file ) ) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes( file ) );
+        if ( buffer.remaining() < 10 || buffer.getInt() != MAGIC || buffer.getShort() != VERSION ) {
+            return null;
+        }
+        int limit = buffer.limit() - 4;
+        ByteBuffer content = buffer.duplicate();
+        content.position( 0 );
+        content.limit( limit );
+        CRC32 crc = new CRC32();
+        crc.update( content );
+        if ( ( int ) crc.getValue() != buffer.getInt( limit ) ) {
+            throw new IOException( "The dictionary snapshot is corrupted: " + file );
+        }
+        buffer.limit( limit );
+        if ( !Objects.equals( source, readString( buffer ) ) ) {
+            return null;
+        }
+        buffer.getLong(); // created
+        
+        int languageCount = buffer.getInt();
+        List<Language> languages = new ArrayList<>( languageCount );
+        for ( int i = 0; i < languageCount; i ++ ) {
+            Language language = new Language();
+            language.setId( readId( buffer ) );
+            language.setLang( readString( buffer ) );
+            language.setLabel( readString( buffer ) );
+            language.setCreateTime( readTime( buffer ) );
+            languages.add( language );
+        }
+        
+        int partitionCount = buffer.getInt();
+        Map<String, Partition> partitions = new LinkedHashMap<>( partitionCount << 1 );
+        for ( int i = 0; i < partitionCount; i ++ ) {
+            String language = readString( buffer );
+            String watermark = readString( buffer );
+            int count = buffer.getInt();
+            List<Dictionary> dictionaries = new ArrayList<>( count );
+            for ( int j = 0; j < count; j ++ ) {
+                Dictionary dict = new Dictionary();
+                dict.setId( readId( buffer ) );
+                dict.setType( readString( buffer ) );
+                dict.setKey( readString( buffer ) );
+                int code = buffer.getInt();
+                dict.setCode( buffer.get() == 0 ? null : code );
+                dict.setAlias( readString( buffer ) );
+                dict.setText( readString( buffer ) );
+                byte enabled = buffer.get();
+                dict.setEnabled( enabled < 0 ? null : enabled == 1 );
+                dict.setCreateTime( readTime( buffer ) );
+                dict.setUpdateTime( readTime( buffer ) );
+                dict.onConstruct();
+                dictionaries.add( dict );
+            }
+            partitions.put( language, new Partition( watermark, dictionaries ) );
+        }
+        return new SnapshotFile( source, languages, partitions );
+    }
+
+    /**
+     * Write the snapshot into a temporary file and then move it to the target file, so that the readers never see a
+     * partial file.
+     * 
+     * @param file the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    void write( Path file ) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if ( directory != null ) {
+            Files.createDirectories( directory );
+        }
+        Path temporary = Files.createTempFile( directory, file.getFileName().toString(), ".tmp" );
+        try {
+            CRC32 crc = new CRC32();
+            try ( OutputStream output = Files.newOutputStream( temporary ) ) {
+                DataOutputStream data = new DataOutputStream(
+                        new CheckedOutputStream( new BufferedOutputStream( output, 64 * 1024 ), crc ) );
+                data.writeInt( MAGIC );
+                data.writeShort( VERSION );
+                writeString( data, source );
+                data.writeLong( System.currentTimeMillis() );
+                
+                data.writeInt( languages.size() );
+                for ( Language language : languages ) {
+                    writeId( data, language.getId() );
+                    writeString( data, language.getLang() );
+                    writeString( data, language.getLabel() );
+                    writeTime( data, language.getCreateTime() );
+                }
+                
+                data.writeInt( partitions.size() );
+                for ( Entry<String, Partition> entry : partitions.entrySet() ) {
+                    Partition partition = entry.getValue();
+                    writeString( data, entry.getKey() );
+                    writeString( data, partition.watermark );
+                    data.writeInt( partition.dictionaries.size() );
+                    for ( Dictionary dict : partition.dictionaries ) {
+                        writeId( data, dict.getId() );
+                        writeString( data, dict.getType() );
+                        writeString( data, dict.getKey() );
+                        data.writeInt( dict.getCode() == null ? 0 : dict.getCode() );
+                        data.writeByte( dict.getCode() == null ? 0 : 1 );
+                        writeString( data, dict.getAlias() );
+                        writeString( data, dict.getText() );
+                        data.writeByte( dict.getEnabled() == null ? -1 : dict.getEnabled() ? 1 : 0 );
+                        writeTime( data, dict.getCreateTime() );
+                        writeTime( data, dict.getUpdateTime() );
+                    }
+                }
+                data.flush();
+                int checksum = ( int ) crc.getValue();
+                data.writeInt( checksum );
+                data.flush();
+            }
+            Files.move( temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        } finally {
+            Files.deleteIfExists( temporary );
+        }
+    }
+
+    private static void writeString( DataOutputStream data, String value ) throws IOException {
+        if ( value == null ) {
+            data.writeInt( NULL_LENGTH );
+        } else {
+            byte [] bytes = value.getBytes( StandardCharsets.UTF_8 );
+            data.writeInt( bytes.length );
+            data.write( bytes );
+        }
+    }
+
+    private static String readString( ByteBuffer buffer ) {
+        int length = buffer.getInt();
+        if ( length == NULL_LENGTH ) {
+            return null;
+        }
+        byte [] bytes = new byte[ length ];
+        buffer.get( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    private static void writeId( DataOutputStream data, Long id ) throws IOException {
+        data.writeLong( id == null ? NULL_ID : id );
+    }
+
+    private static Long readId( ByteBuffer buffer ) {
+        long id = buffer.getLong();
+        return id == NULL_ID ? null : id;
+    }
+
+    private static void writeTime( DataOutputStream data, LocalDateTime time ) throws IOException {
+        if ( time == null ) {
+            data.writeLong( NULL_TIME );
+        } else {
+            data.writeLong( time.toEpochSecond( ZoneOffset.UTC ) );
+            data.writeInt( time.getNano() );
+        }
+    }
+
+    private static LocalDateTime readTime( ByteBuffer buffer ) {
+        long seconds = buffer.getLong();
+        return seconds == NULL_TIME ? null : LocalDateTime.ofEpochSecond( seconds, buffer.getInt(), ZoneOffset.UTC );
+    }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.manager.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.viiyue.plugins.dict.spring.boot.dialect.SqlResolver;
+
+/**
+ * The target table of a statement, which carries the language partition when all languages share one dictionary
+ * table.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class TableScope {
+
+    private final String name;
+    private final String column;
+    private final String language;
+    private final boolean excluded;
+
+    private TableScope( String name, String column, String language, boolean excluded ) {
+        this.name = name;
+        this.column = column;
+        this.language = language;
+        this.excluded = excluded;
+    }
+
+    static TableScope of( String name ) {
+        return new TableScope( name, null, null, false );
+    }
+
+    static TableScope partitioned( String name, String column, String language ) {
+        return new TableScope( name, column, language == null ? "" : language, false );
+    }
+
+    /**
+     * All partitions of a shared table except the one of the language
+     * 
+     * @param name     the shared table
+     * @param column   the language column
+     * @param language the excluded language, {@code null} means default.
+     * @return the table scope
+     */
+    static TableScope excluding( String name, String column, String language ) {
+        return new TableScope( name, column, language == null ? "" : language, true );
+    }
+
+    String name() {
+        return name;
+    }
+
+    boolean isPartitioned() {
+        return column != null;
+    }
+
+    String column() {
+        return column;
+    }
+
+    String language() {
+        return language;
+    }
+
+    /**
+     * Append the language column to the conditions if the table is partitioned
+     * 
+     * @param conditions the condition columns
+     * @return the final condition columns
+     */
+    String [] where( String ... conditions ) {
+        if ( column == null || excluded ) {
+            return conditions;
+        }
+        String [] columns = Arrays.copyOf( conditions, conditions.length + 1 );
+        columns[ conditions.length ] = column;
+        return columns;
+    }
+
+    /**
+     * Append the exclusion of the language partition to a statement built with the conditions of {@link #where}, which
+     * must not be empty
+     * 
+     * @param statement the statement
+     * @param sql       the SQL resolver
+     * @return the final statement
+     */
+    String exclude( String statement, SqlResolver sql ) {
+        return excluded ? statement + " AND " + sql.wrap( column ) + " <> ?" : statement;
+    }
+
+    /**
+     * Bind the language value after the other parameters if the table is partitioned
+     * 
+     * @param statement the prepared statement
+     * @param index     the parameter index of the language value
+     * @return the next parameter index
+     * @throws SQLException if a database access error occurs
+     */
+    int bind( PreparedStatement statement, int index ) throws SQLException {
+        if ( column != null ) {
+            statement.setObject( index ++, language );
+        }
+        return index;
+    }
+
+    /**
+     * Put the language value into the column values if the table is partitioned
+     * 
+     * @param values the column values
+     * @return the column values
+     */
+    Map<String, Object> fill( Map<String, Object> values ) {
+        if ( column != null && !excluded ) {
+            values.put( column, language );
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return column == null ? name : name + "[" + column + ( excluded ? "<>" : "=" ) + language + "]";
+    }
+
+}
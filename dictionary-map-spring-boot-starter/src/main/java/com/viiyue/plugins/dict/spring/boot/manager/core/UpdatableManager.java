@@ -20,6 +20,7 @@ import static java.util.stream.Collectors.toList;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -55,29 +56,24 @@ class UpdatableManager extends AbstractDbManager {
      * INSERT INTO {TABLE} ({COLUMN}, {COLUMN}, ...) VALUES (?, ?, ...)
      * 
      * @param <T>       the bean of {@link BaseEntity}
-     * @param table     the target table name
-     * @param creatable the auto create table sql statement, it can be {@code null}.
+     * @param table     the target table
      * @param bean      the target bean object
      * @return the number of rows affected
      */
-    public final <T extends BaseEntity> int insert( String table, T bean ) {
+    public final <T extends BaseEntity> int insert( TableScope table, T bean ) {
         bean.onCreate();
-        Map<String, Object> mapping = toValues( bean, true, map -> {
-            if ( bean.getId() == null && bridge.hasIdResolver() ) {
-                map.put( "id", bridge.nextId() );
-            }
-        });
-        if ( bridge.isLogEnable() ) {
-            bridge.printLog( "Ready to insert data into the \"{}\" table ...", table );
-            bridge.printLog( "The data map is: {}", mapping );
-        }
-        String sql = bridge.sql().insert( table, mapping );
         if ( bean.getId() == null && bridge.hasIdResolver() ) {
             bean.setId( bridge.nextId() );
             if ( bridge.isLogEnable() ) {
                 bridge.printLog( "Generate the ID primary key value( {} )", bean.getId() );
             }
         }
+        Map<String, Object> mapping = table.fill( toValues( bean, true ) );
+        if ( bridge.isLogEnable() ) {
+            bridge.printLog( "Ready to insert data into the \"{}\" table ...", table );
+            bridge.printLog( "The data map is: {}", mapping );
+        }
+        String sql = bridge.sql().insert( table.name(), mapping );
         return execute( 0, sql, statement -> {
             int index = 1;
             for ( Map.Entry<String, Object> entry : mapping.entrySet() ) {
@@ -91,11 +87,11 @@ class UpdatableManager extends AbstractDbManager {
      * Batch insert
      * 
      * @param <T>   the bean of {@link BaseEntity}
-     * @param table the target table name
+     * @param table the target table
      * @param beans the target data list
      * @return the number of rows affected
      */
-    public final <T extends BaseEntity> int insertBatch( String table, List<T> beans ) {
+    public final <T extends BaseEntity> int insertBatch( TableScope table, List<T> beans ) {
         T firstItem = null;
         if ( isEmpty( beans ) || ( firstItem = fristNonNull( beans ) ) == null ) {
             return 0;
@@ -105,18 +101,41 @@ class UpdatableManager extends AbstractDbManager {
         }
         Class<? extends BaseEntity> beanType = firstItem.getClass();
 
-        // OUTPUT -> (?, ?, ?, ...)
+        // OUTPUT -> (?, ?, ?, ...), the language column is the last column of the shared table
+        List<String> columns = new ArrayList<>();
         StringJoiner value = new StringJoiner( ", ", "(", ")" );
-        eachBean( beanType, property -> value.add( "?" ) );
+        eachBean( beanType, property -> {
+            columns.add( property.getColumn() );
+            value.add( "?" );
+        } );
+        if ( table.isPartitioned() ) {
+            columns.add( table.column() );
+            value.add( "?" );
+        }
 
         // Id resolver
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Prepare to generate ID primary key values in batches ..." );
         }
-        for ( T bean : beans ) {
-            if ( bean.getId() == null && bridge.hasIdResolver() ) {
-                bean.setId( bridge.nextId() );
-                bean.onCreate();
+        if ( bridge.hasIdResolver() ) {
+            int count = 0;
+            for ( T bean : beans ) {
+                if ( bean != null && bean.getId() == null ) {
+                    count ++;
+                }
+            }
+            // Reserve all ids at once
+            long [] ids = count == 0 ? null : bridge.nextIds( count );
+            if ( count > 0 && ( ids == null || ids.length != count ) ) {
+                throw new IllegalStateException( "The id resolver returned " + ( ids == null ? 0 : ids.length )
+                        + " ids, but " + count + " ids were requested" );
+            }
+            int index = 0;
+            for ( T bean : beans ) {
+                if ( bean != null && bean.getId() == null ) {
+                    bean.setId( ids[ index ++ ] );
+                    bean.onCreate();
+                }
             }
         }
         if ( bridge.isLogEnable() ) {
@@ -124,7 +143,8 @@ class UpdatableManager extends AbstractDbManager {
         }
 
         // Bean -> Map<String, Object>
-        List<Map<String, Object>> mapValues = beans.stream().map( this::toValues ).collect( toList() );
+        List<Map<String, Object>> mapValues = beans.stream().map( bean -> table.fill( toValues( bean ) ) )
+                .collect( toList() );
 
         int rows, size = beans.size();
         if ( size <= smallBatchSize ) {
@@ -140,8 +160,8 @@ class UpdatableManager extends AbstractDbManager {
                 }
             }
 
-            // OUTPUT -> INSERT INTO {TABLE} VALUES (?, ?, ...), (?, ?, ...), ...
-            String sql = bridge.sql().insert( table, values.toString() );
+            // OUTPUT -> INSERT INTO {TABLE} (column, ...) VALUES (?, ?, ...), (?, ?, ...), ...
+            String sql = bridge.sql().insert( table.name(), columns, values.toString() );
             rows = execute( 0, sql, statement -> {
                 int index = 1;
                 for ( Map<String, Object> mapping : mapValues ) {
@@ -157,9 +177,9 @@ class UpdatableManager extends AbstractDbManager {
             if ( bridge.isLogEnable() ) {
                 bridge.printLog( "Now that the data size exceeds {}, use the high-volume scheme.", size );
             }
-            // INSERT INTO {TABLE} VALUES (?, ?, ...)
-            String sql = bridge.sql().insert( table, value.toString() );
-            rows = executeBatch( sql, mapValues, false );
+            // INSERT INTO {TABLE} (column, ...) VALUES (?, ?, ...)
+            String sql = bridge.sql().insert( table.name(), columns, value.toString() );
+            rows = executeBatch( sql, mapValues, table, false );
         }
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Total: {}, Success: {}, Failure: {}", size, rows, size - rows );
@@ -171,16 +191,15 @@ class UpdatableManager extends AbstractDbManager {
      * UPDATE {TABLE} SET {COLUMN} = ?, {COLUMN} = ?, ... WHERE id = ?
      * 
      * @param <T>       the bean of {@link BaseEntity}
-     * @param table     the target table name
-     * @param creatable the auto create table sql statement, it can be {@code null}.
+     * @param table     the target table
      * @param bean      the target bean object
      * @return the number of rows affected
      */
-    public final <T extends BaseEntity> int update( String table, T bean ) {
+    public final <T extends BaseEntity> int update( TableScope table, T bean ) {
         bean.onUpdate();
         Map<String, Object> mapping = toValues( bean, true );
         Object id = mapping.remove( "id" ); // Filter id
-        String sql = bridge.sql().update( table, mapping, "id" );
+        String sql = bridge.sql().update( table.name(), mapping, table.where( "id" ) );
         mapping.put( "id", id ); // Last value
         if ( bridge.isLogEnable() ) {
             bridge.printLog( "Ready to update table \"{}\" ...", table );
@@ -191,6 +210,7 @@ class UpdatableManager extends AbstractDbManager {
             for ( Map.Entry<String, Object> entry : mapping.entrySet() ) {
                 statement.setObject( index ++, entry.getValue() );
             }
+            table.bind( statement, index );
             return statement.executeUpdate();
         } );
     }
@@ -199,11 +219,11 @@ class UpdatableManager extends AbstractDbManager {
      * Update batch
      * 
      * @param <T>   the bean of {@link BaseEntity}
-     * @param table the target table name
+     * @param table the target table
      * @param beans the target data list
      * @return the number of rows affected
      */
-    public final <T extends BaseEntity> int updateBatch( String table, List<T> beans ) {
+    public final <T extends BaseEntity> int updateBatch( TableScope table, List<T> beans ) {
         T firstItem = null;
         if ( isEmpty( beans ) || ( firstItem = fristNonNull( beans ) ) == null ) {
             return 0;
@@ -218,7 +238,7 @@ class UpdatableManager extends AbstractDbManager {
         StringJoiner expressions = new StringJoiner( ", " );
         eachBean( beanType, property -> {
             if ( !property.is( "id" ) ) {
-                expressions.add( bridge.props().wrap( property.getColumn() ) + " = ?" );
+                expressions.add( bridge.sql().wrap( property.getColumn() ) + " = ?" );
             }
         } );
 
@@ -226,8 +246,8 @@ class UpdatableManager extends AbstractDbManager {
         List<Map<String, Object>> values = beans.stream().map( this::toValues ).collect( toList() );
 
         // UPDATE {TABLE} SET column = ?, column = ?, column = ?, ... WHERE id = ?
-        String sql = bridge.sql().update( table, expressions.toString(), "id" );
-        int rows = executeBatch( sql, values, true );
+        String sql = bridge.sql().update( table.name(), expressions.toString(), table.where( "id" ) );
+        int rows = executeBatch( sql, values, table, true );
         if ( bridge.isLogEnable() ) {
             int size = beans.size();
             bridge.printLog( "Total: {}, Success: {}, Failure: {}", size, rows, size - rows );
@@ -235,7 +255,8 @@ class UpdatableManager extends AbstractDbManager {
         return rows;
     }
 
-    private <T extends BaseEntity> int executeBatch( String sql, List<Map<String, Object>> beans, boolean withId ) {
+    private <T extends BaseEntity> int executeBatch( String sql, List<Map<String, Object>> beans, TableScope table,
+            boolean withId ) {
         return execute( 0, sql, statement -> {
             int row = 0;
             int size = beans.size();
@@ -250,6 +271,7 @@ class UpdatableManager extends AbstractDbManager {
                     }
                     if ( withId ) {
                         statement.setObject( index ++, mapping.get( "id" ) ); // WHERE id = ?
+                        table.bind( statement, index );
                     }
                 }
                 statement.addBatch();
@@ -0,0 +1,307 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.meta;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.springframework.util.Assert;
+
+/**
+ * An immutable dictionary list which keeps its entries off the heap, in the packed columns of a direct buffer with a
+ * string pool, instead of one {@link Dictionary} object per entry. An entry is materialized as a short-lived
+ * {@link Dictionary} each time it is read, and the codes are matched by binary searching a sorted code column, so
+ * that a list of millions of dictionaries only holds a few objects on the heap.
+ * 
+ * <p>
+ * The strings referenced by more than one entry, such as the keys and types, are decoded once and shared, the others
+ * are decoded on demand.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public final class CompactDictionaryList extends AbstractList<Dictionary> implements RandomAccess {
+
+    private static final int NULL = -1;
+    private static final byte NULL_ID = 1;
+    private static final byte NULL_CODE = 1 << 1;
+    private static final byte NULL_ENABLED = 1 << 2;
+    private static final byte ENABLED = 1 << 3;
+    private static final byte NULL_CREATE_TIME = 1 << 4;
+    private static final byte NULL_UPDATE_TIME = 1 << 5;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int coded;
+    private final String [] shared;
+
+    // The offsets of the columns in the buffer
+    private final int ids;
+    private final int createTimes;
+    private final int updateTimes;
+    private final int codes;
+    private final int keys;
+    private final int types;
+    private final int aliases;
+    private final int texts;
+    private final int order;
+    private final int flags;
+    private final int strings;
+    private final int chars;
+
+    private CompactDictionaryList( List<Dictionary> dicts ) {
+        this.size = dicts.size();
+
+        // Pool the strings, the shared ones first so that only they are kept on the heap, each has { count, index }
+        Map<String, int []> pool = new HashMap<>( size );
+        for ( Dictionary dict : dicts ) {
+            count( pool, dict.getKey() );
+            count( pool, dict.getType() );
+            count( pool, dict.getAlias() );
+            count( pool, dict.getText() );
+        }
+        int sharedCount = 0;
+        for ( int [] entry : pool.values() ) {
+            if ( entry[ 0 ] > 1 ) {
+                entry[ 1 ] = sharedCount ++;
+            }
+        }
+        this.shared = new String[ sharedCount ];
+        byte [][] encoded = new byte[ pool.size() ][];
+        long byteCount = 0;
+        int uniqueIndex = sharedCount;
+        for ( Map.Entry<String, int []> entry : pool.entrySet() ) {
+            int [] value = entry.getValue();
+            if ( value[ 0 ] > 1 ) {
+                shared[ value[ 1 ] ] = entry.getKey();
+            } else {
+                value[ 1 ] = uniqueIndex ++;
+            }
+            byte [] bytes = entry.getKey().getBytes( StandardCharsets.UTF_8 );
+            encoded[ value[ 1 ] ] = bytes;
+            byteCount += bytes.length;
+        }
+
+        // The rows with a code sorted by code and then by row, the first of the same code wins
+        long [] sorted = new long[ size ];
+        int coded = 0;
+        for ( int row = 0; row < size; row ++ ) {
+            Integer code = dicts.get( row ).getCode();
+            if ( code != null ) {
+                sorted[ coded ++ ] = ( ( long ) code << 32 ) | row;
+            }
+        }
+        Arrays.sort( sorted, 0, coded );
+        this.coded = coded;
+        long capacity = size * 45L + coded * 4L + ( encoded.length + 1 ) * 4L + byteCount;
+        Assert.isTrue( capacity <= Integer.MAX_VALUE, "Too many dictionaries to pack into one compact list: " + size );
+
+        // Eight-byte columns first to keep them aligned
+        this.ids = 0;
+        this.createTimes = ids + size * 8;
+        this.updateTimes = createTimes + size * 8;
+        this.codes = updateTimes + size * 8;
+        this.keys = codes + size * 4;
+        this.types = keys + size * 4;
+        this.aliases = types + size * 4;
+        this.texts = aliases + size * 4;
+        this.order = texts + size * 4;
+        this.strings = order + coded * 4;
+        this.flags = strings + ( encoded.length + 1 ) * 4;
+        this.chars = flags + size;
+        this.buffer = ByteBuffer.allocateDirect( ( int ) capacity );
+
+        for ( int row = 0; row < size; row ++ ) {
+            Dictionary dict = dicts.get( row );
+            byte flag = 0;
+            if ( dict.getId() == null ) {
+                flag |= NULL_ID;
+            } else {
+                buffer.putLong( ids + row * 8, dict.getId() );
+            }
+            if ( dict.getCode() == null ) {
+                flag |= NULL_CODE;
+            } else {
+                buffer.putInt( codes + row * 4, dict.getCode() );
+            }
+            if ( dict.getEnabled() == null ) {
+                flag |= NULL_ENABLED;
+            } else if ( dict.getEnabled() ) {
+                flag |= ENABLED;
+            }
+            if ( dict.getCreateTime() == null ) {
+                flag |= NULL_CREATE_TIME;
+            } else {
+                buffer.putLong( createTimes + row * 8, toNanos( dict.getCreateTime() ) );
+            }
+            if ( dict.getUpdateTime() == null ) {
+                flag |= NULL_UPDATE_TIME;
+            } else {
+                buffer.putLong( updateTimes + row * 8, toNanos( dict.getUpdateTime() ) );
+            }
+            buffer.putInt( keys + row * 4, indexOf( pool, dict.getKey() ) );
+            buffer.putInt( types + row * 4, indexOf( pool, dict.getType() ) );
+            buffer.putInt( aliases + row * 4, indexOf( pool, dict.getAlias() ) );
+            buffer.putInt( texts + row * 4, indexOf( pool, dict.getText() ) );
+            buffer.put( flags + row, flag );
+        }
+        for ( int i = 0; i < coded; i ++ ) {
+            buffer.putInt( order + i * 4, ( int ) sorted[ i ] );
+        }
+        ByteBuffer writer = buffer.duplicate();
+        writer.position( chars );
+        for ( int i = 0; i < encoded.length; i ++ ) {
+            buffer.putInt( strings + i * 4, writer.position() );
+            writer.put( encoded[ i ] );
+        }
+        buffer.putInt( strings + encoded.length * 4, writer.position() );
+    }
+
+    /**
+     * Pack the dictionaries into a compact list
+     * 
+     * @param dicts the dictionaries
+     * @return the compact list, or the list itself if it is already compact.
+     */
+    public static CompactDictionaryList of( List<Dictionary> dicts ) {
+        if ( dicts instanceof CompactDictionaryList ) {
+            return ( CompactDictionaryList ) dicts;
+        }
+        return new CompactDictionaryList( dicts );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materialize the dictionary of the row, the returned dictionary is a copy and changing it does not change the
+     * list.
+     */
+    @Override
+    public Dictionary get( int row ) {
+        if ( row < 0 || row >= size ) {
+            throw new IndexOutOfBoundsException( "Index: " + row + ", Size: " + size );
+        }
+        byte flag = buffer.get( flags + row );
+        Dictionary dict = new Dictionary();
+        dict.setId( ( flag & NULL_ID ) != 0 ? null : buffer.getLong( ids + row * 8 ) );
+        dict.setCode( ( flag & NULL_CODE ) != 0 ? null : buffer.getInt( codes + row * 4 ) );
+        dict.setEnabled( ( flag & NULL_ENABLED ) != 0 ? null : ( flag & ENABLED ) != 0 );
+        dict.setCreateTime( ( flag & NULL_CREATE_TIME ) != 0 ? null : time( createTimes, row ) );
+        dict.setUpdateTime( ( flag & NULL_UPDATE_TIME ) != 0 ? null : time( updateTimes, row ) );
+        dict.setKey( string( buffer.getInt( keys + row * 4 ) ) );
+        dict.setType( string( buffer.getInt( types + row * 4 ) ) );
+        dict.setAlias( string( buffer.getInt( aliases + row * 4 ) ) );
+        dict.setText( string( buffer.getInt( texts + row * 4 ) ) );
+        return dict;
+    }
+
+    /**
+     * Match the first enabled dictionary of the code
+     * 
+     * @param code the dictionary code
+     * @return the matching dictionary, or {@code null} if not found.
+     */
+    public Dictionary match( int code ) {
+        return find( code, true );
+    }
+
+    /**
+     * Match the first dictionary of the code and <b>ignores status</b>
+     * 
+     * @param code the dictionary code
+     * @return the matching dictionary, or {@code null} if not found.
+     */
+    public Dictionary matchAlways( int code ) {
+        return find( code, false );
+    }
+
+    /**
+     * @return the number of bytes held off the heap
+     */
+    public int offHeapBytes() {
+        return buffer.capacity();
+    }
+
+    private Dictionary find( int code, boolean enabled ) {
+        int low = 0, high = coded;
+        while ( low < high ) {
+            int middle = ( low + high ) >>> 1;
+            if ( codeAt( middle ) < code ) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for ( ; low < coded && codeAt( low ) == code; low ++ ) {
+            int row = buffer.getInt( order + low * 4 );
+            if ( !enabled || ( buffer.get( flags + row ) & ENABLED ) != 0 ) {
+                return get( row );
+            }
+        }
+        return null;
+    }
+
+    private int codeAt( int sorted ) {
+        return buffer.getInt( codes + buffer.getInt( order + sorted * 4 ) * 4 );
+    }
+
+    private String string( int index ) {
+        if ( index == NULL ) {
+            return null;
+        }
+        if ( index < shared.length ) {
+            return shared[ index ];
+        }
+        int start = buffer.getInt( strings + index * 4 );
+        byte [] bytes = new byte[ buffer.getInt( strings + index * 4 + 4 ) - start ];
+        ByteBuffer reader = buffer.duplicate();
+        reader.position( start );
+        reader.get( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    private LocalDateTime time( int column, int row ) {
+        long nanos = buffer.getLong( column + row * 8 );
+        return LocalDateTime.ofEpochSecond( Math.floorDiv( nanos, 1_000_000_000L ),
+                ( int ) Math.floorMod( nanos, 1_000_000_000L ), ZoneOffset.UTC );
+    }
+
+    private static void count( Map<String, int []> pool, String string ) {
+        if ( string != null ) {
+            pool.computeIfAbsent( string, key -> new int[ 2 ] )[ 0 ] ++;
+        }
+    }
+
+    private static int indexOf( Map<String, int []> pool, String string ) {
+        return string == null ? NULL : pool.get( string )[ 1 ];
+    }
+
+    private static long toNanos( LocalDateTime time ) {
+        return time.toEpochSecond( ZoneOffset.UTC ) * 1_000_000_000L + time.getNano();
+    }
+
+}
@@ -26,7 +26,9 @@ import org.springframework.util.StringUtils;
 
 import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
 import com.viiyue.plugins.dict.spring.boot.utils.BeanMapper;
+import com.viiyue.plugins.dict.spring.boot.utils.StringPool;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -54,39 +56,153 @@ public class Dictionary extends BaseEntity implements Serializable {
     private Boolean enabled;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
+    
+    /** The digest of the row, which is computed lazily and discarded when the row is changed */
+    @Getter( AccessLevel.NONE )
     private transient String token;
+    
+    /** The 64-bit hash of the row, which is computed lazily and discarded when the row is changed, 0 means unknown */
+    @Getter( AccessLevel.NONE )
+    @Setter( AccessLevel.NONE )
+    private transient long hash;
+    
+    /** The pre-rendered form of the serializer, which is built lazily and discarded when any field is changed */
+    @Getter( AccessLevel.NONE )
+    @Setter( AccessLevel.NONE )
+    private transient volatile Object rendered;
 
     public boolean enabled() {
         return Objects.equals( Boolean.TRUE, enabled );
     }
 
     public Dictionary enable() {
-        this.enabled = Boolean.TRUE;
+        setEnabled( Boolean.TRUE );
         return this;
     }
 
     public Dictionary disable() {
-        this.enabled = Boolean.FALSE;
+        setEnabled( Boolean.FALSE );
         return this;
     }
 
     public Dictionary asEnum() {
-        this.type = TYPE_ENUM;
+        setType( TYPE_ENUM );
         return this;
     }
 
     public Dictionary asText() {
-        this.type = TYPE_TEXT;
+        setType( TYPE_TEXT );
         return this;
     }
 
+    public void setId( Long id ) {
+        this.id = id;
+        changed();
+    }
+
+    public void setType( String type ) {
+        this.type = type;
+        changed();
+    }
+
+    public void setKey( String key ) {
+        this.key = key;
+        changed();
+    }
+
+    public void setCode( Integer code ) {
+        this.code = code;
+        changed();
+    }
+
+    public void setAlias( String alias ) {
+        this.alias = alias;
+        changed();
+    }
+
+    public void setText( String text ) {
+        this.text = text;
+        changed();
+    }
+
+    public void setEnabled( Boolean enabled ) {
+        this.enabled = enabled;
+        this.rendered = null;
+    }
+
+    public void setCreateTime( LocalDateTime createTime ) {
+        this.createTime = createTime;
+        this.rendered = null;
+    }
+
+    public void setUpdateTime( LocalDateTime updateTime ) {
+        this.updateTime = updateTime;
+        this.rendered = null;
+    }
+
+    /**
+     * The MD5 digest of the row, it is only computed when it is asked for.
+     * 
+     * @return the hex form of the digest
+     */
+    public String getToken() {
+        String token = this.token;
+        if ( token == null ) {
+            StringJoiner tokenzier = new StringJoiner( "." );
+            tokenzier.add( String.valueOf( id ) );
+            tokenzier.add( String.valueOf( type ) );
+            tokenzier.add( String.valueOf( key ) );
+            tokenzier.add( String.valueOf( code ) );
+            tokenzier.add( String.valueOf( alias ) );
+            tokenzier.add( String.valueOf( text ) );
+            byte [] originals = tokenzier.toString().getBytes( StandardCharsets.UTF_8 );
+            this.token = token = DigestUtils.md5DigestAsHex( originals );
+        }
+        return token;
+    }
+
+    /**
+     * The 64-bit hash of the row, it is only computed when it is asked for, such as when the dictionaries are put into
+     * a hash table.
+     * 
+     * @return the hash of the id, type, key, code, alias and text
+     */
+    public long longHash() {
+        long hash = this.hash;
+        if ( hash == 0 ) {
+            hash = Objects.hashCode( id );
+            hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode( type );
+            hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode( key );
+            hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode( code );
+            hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode( alias );
+            hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode( text );
+            // Spread the bits of the string hashes over the whole long
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            this.hash = hash == 0 ? 1 : hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Whether the row has been changed compared with another version of it, the update time is compared first as the
+     * row version, and then the fields.
+     * 
+     * @param other another version of the same row
+     * @return {@code true} if they are different
+     */
+    public boolean isChangedFrom( Dictionary other ) {
+        return !Objects.equals( updateTime, other.updateTime ) || !equals( other );
+    }
+
     public Dictionary forInsert() {
-        this.createTime = LocalDateTime.now();
+        setCreateTime( LocalDateTime.now() );
         return this;
     }
 
     public Dictionary forUpdate() {
-        this.updateTime = LocalDateTime.now();
+        setUpdateTime( LocalDateTime.now() );
         return this;
     }
 
@@ -103,13 +219,29 @@ public class Dictionary extends BaseEntity implements Serializable {
         return this;
     }
     
+    /**
+     * @return the pre-rendered form of the serializer, or {@code null} if it has not been rendered yet.
+     */
+    public Object rendered() {
+        return rendered;
+    }
+
+    /**
+     * Keep the pre-rendered form of the serializer, the cached dictionaries are serialized repeatedly with it.
+     * 
+     * @param rendered the pre-rendered form
+     */
+    public void rendered( Object rendered ) {
+        this.rendered = rendered;
+    }
+    
     @Override
     public void onCreate() {
         if ( createTime == null ) {
-            this.createTime = LocalDateTime.now();
+            setCreateTime( LocalDateTime.now() );
         }
         if ( enabled == null ) {
-            this.enabled = Boolean.TRUE;
+            setEnabled( Boolean.TRUE );
         }
         if ( StringUtils.isEmpty( type ) ) {
             this.asText();
@@ -119,35 +251,47 @@ public class Dictionary extends BaseEntity implements Serializable {
     @Override
     public void onUpdate() {
         if ( updateTime == null ) {
-            this.updateTime = LocalDateTime.now();
+            setUpdateTime( LocalDateTime.now() );
         }
     }
 
     @Override
     public void onConstruct() {
-        StringJoiner tokenzier = new StringJoiner( "." );
-        tokenzier.add( String.valueOf( id ) );
-        tokenzier.add( String.valueOf( type ) );
-        tokenzier.add( String.valueOf( key ) );
-        tokenzier.add( String.valueOf( code ) );
-        tokenzier.add( String.valueOf( alias ) );
-        tokenzier.add( String.valueOf( text ) );
-        String original = tokenzier.toString();
-        byte [] originals = original.getBytes( StandardCharsets.UTF_8 );
-        setToken( DigestUtils.md5DigestAsHex( originals ) );
+        // The same keys, types and aliases are loaded for every language
+        this.key = StringPool.intern( key );
+        this.type = StringPool.intern( type );
+        this.alias = StringPool.intern( alias );
+        changed();
     }
 
     @Override
     public int hashCode() {
-        return token == null ? super.hashCode() : token.hashCode();
+        long hash = longHash();
+        return ( int ) ( hash ^ ( hash >>> 32 ) );
     }
 
     @Override
     public boolean equals( Object obj ) {
-        if ( obj == null || ! ( obj instanceof Dictionary ) ) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( ! ( obj instanceof Dictionary ) ) {
             return false;
         }
-        return Objects.equals( token, ( ( Dictionary ) obj ).token );
+        // The keys, types and aliases are pooled, so they are mostly compared by reference
+        Dictionary other = ( Dictionary ) obj;
+        return Objects.equals( id, other.id ) && Objects.equals( code, other.code ) && Objects.equals( key, other.key )
+                && Objects.equals( type, other.type ) && Objects.equals( alias, other.alias )
+                && Objects.equals( text, other.text );
+    }
+
+    /**
+     * Discard the derived values of the row, including the pre-rendered form
+     */
+    private void changed() {
+        this.token = null;
+        this.hash = 0;
+        this.rendered = null;
     }
 
     @Override
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.meta;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable code table of the dictionaries of one key, which matches a code without scanning the dictionary list.
+ * Small non-negative codes are indexed by an array, other codes by a hash map, and a {@link CompactDictionaryList} is
+ * searched in place.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public final class DictionaryIndex {
+
+    public static final DictionaryIndex EMPTY = new DictionaryIndex( Collections.emptyList() );
+    private static final int MAX_ARRAY_CODE = 1024;
+
+    private final List<Dictionary> source;
+    private final Dictionary [] always;
+    private final Dictionary [] enabled;
+    private final Map<Integer, Dictionary> alwaysMap;
+    private final Map<Integer, Dictionary> enabledMap;
+    private final CompactDictionaryList compact;
+
+    private DictionaryIndex( List<Dictionary> source ) {
+        this.source = source;
+        if ( source instanceof CompactDictionaryList ) {
+            // The compact list searches its own sorted code column, its entries are not held on the heap
+            this.compact = ( CompactDictionaryList ) source;
+            this.always = null;
+            this.enabled = null;
+            this.alwaysMap = null;
+            this.enabledMap = null;
+            return;
+        }
+        this.compact = null;
+        int max = -1;
+        boolean dense = true;
+        for ( Dictionary dict : source ) {
+            Integer code = dict.getCode();
+            if ( code != null ) {
+                if ( code < 0 || code >= MAX_ARRAY_CODE ) {
+                    dense = false;
+                    break;
+                }
+                max = Math.max( max, code );
+            }
+        }
+        if ( dense ) {
+            this.always = new Dictionary[ max + 1 ];
+            this.enabled = new Dictionary[ max + 1 ];
+            this.alwaysMap = null;
+            this.enabledMap = null;
+            // The first matching dictionary wins, the same as a linear scan
+            for ( Dictionary dict : source ) {
+                Integer code = dict.getCode();
+                if ( code != null ) {
+                    if ( always[ code ] == null ) {
+                        always[ code ] = dict;
+                    }
+                    if ( enabled[ code ] == null && dict.enabled() ) {
+                        enabled[ code ] = dict;
+                    }
+                }
+            }
+        } else {
+            this.always = null;
+            this.enabled = null;
+            this.alwaysMap = new HashMap<>( source.size() << 1 );
+            this.enabledMap = new HashMap<>( source.size() << 1 );
+            for ( Dictionary dict : source ) {
+                Integer code = dict.getCode();
+                if ( code != null ) {
+                    alwaysMap.putIfAbsent( code, dict );
+                    if ( dict.enabled() ) {
+                        enabledMap.putIfAbsent( code, dict );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the code table of the dictionaries
+     * 
+     * @param dicts all dictionaries of one key, including the disabled ones.
+     * @return the code table
+     */
+    public static DictionaryIndex of( List<Dictionary> dicts ) {
+        return dicts == null || dicts.isEmpty() ? EMPTY : new DictionaryIndex( dicts );
+    }
+
+    /**
+     * Whether the code table is built from the dictionary list
+     * 
+     * @param dicts the dictionary list
+     * @return {@code true} if it is the same list instance
+     */
+    public boolean isIndexOf( List<Dictionary> dicts ) {
+        return source == dicts || ( this == EMPTY && ( dicts == null || dicts.isEmpty() ) );
+    }
+
+    /**
+     * Match the enabled dictionary of the code
+     * 
+     * @param code the dictionary code
+     * @return the matching dictionary, or {@code null} if not found.
+     */
+    public Dictionary match( int code ) {
+        if ( compact != null ) {
+            return compact.match( code );
+        }
+        if ( enabled != null ) {
+            return code >= 0 && code < enabled.length ? enabled[ code ] : null;
+        }
+        return enabledMap == null ? null : enabledMap.get( code );
+    }
+
+    /**
+     * Match the dictionary of the code and <b>ignores status</b>
+     * 
+     * @param code the dictionary code
+     * @return the matching dictionary, or {@code null} if not found.
+     */
+    public Dictionary matchAlways( int code ) {
+        if ( compact != null ) {
+            return compact.matchAlways( code );
+        }
+        if ( always != null ) {
+            return code >= 0 && code < always.length ? always[ code ] : null;
+        }
+        return alwaysMap == null ? null : alwaysMap.get( code );
+    }
+
+}
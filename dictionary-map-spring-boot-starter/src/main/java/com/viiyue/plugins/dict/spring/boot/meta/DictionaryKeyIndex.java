@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable key table of a dictionary list, which keeps the distinct keys sorted and the rows of each key in the
+ * list order, the keys of a namespace are adjacent in it, so the dictionaries under a prefix are found by binary
+ * searches and the cost is in proportion to the size of the namespace instead of the whole list.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public final class DictionaryKeyIndex {
+
+    public static final DictionaryKeyIndex EMPTY = new DictionaryKeyIndex( Collections.emptyList() );
+
+    private final List<Dictionary> source;
+    private final String [] keys;
+    private final int [] starts;
+    private final int [] rows;
+
+    private DictionaryKeyIndex( List<Dictionary> source ) {
+        this.source = source;
+        int size = source.size();
+
+        // Count the rows of each key, each has { count, next position }
+        Map<String, int []> counts = new HashMap<>( Math.max( 16, size >> 1 ) );
+        int keyed = 0;
+        for ( int row = 0; row < size; row ++ ) {
+            String key = source.get( row ).getKey();
+            if ( key != null ) {
+                counts.computeIfAbsent( key, k -> new int[ 2 ] )[ 0 ] ++;
+                keyed ++;
+            }
+        }
+        this.keys = counts.keySet().toArray( new String[ counts.size() ] );
+        Arrays.sort( keys );
+        this.starts = new int[ keys.length + 1 ];
+        for ( int i = 0; i < keys.length; i ++ ) {
+            int [] count = counts.get( keys[ i ] );
+            count[ 1 ] = starts[ i ];
+            starts[ i + 1 ] = starts[ i ] + count[ 0 ];
+        }
+        this.rows = new int[ keyed ];
+        for ( int row = 0; row < size; row ++ ) {
+            String key = source.get( row ).getKey();
+            if ( key != null ) {
+                rows[ counts.get( key )[ 1 ] ++ ] = row;
+            }
+        }
+    }
+
+    /**
+     * Build the key table of the dictionaries
+     * 
+     * @param dicts the dictionaries of all keys
+     * @return the key index, or {@link #EMPTY} if there are no dictionaries.
+     */
+    public static DictionaryKeyIndex of( List<Dictionary> dicts ) {
+        return dicts == null || dicts.isEmpty() ? EMPTY : new DictionaryKeyIndex( dicts );
+    }
+
+    /**
+     * Whether this index is built from the dictionary list, the cached list is replaced as a whole when it is changed
+     * 
+     * @param dicts the dictionary list
+     * @return {@code true} if this index can still be used for the list
+     */
+    public boolean isIndexOf( List<Dictionary> dicts ) {
+        return source == dicts || ( this == EMPTY && ( dicts == null || dicts.isEmpty() ) );
+    }
+
+    /**
+     * Find the keys of a namespace, which are the prefix itself and the keys starting with the prefix and a dot, a key
+     * only sharing some characters with the prefix does not belong to it, e.g. "user" matches "user" and
+     * "user.status", but not "username".
+     * 
+     * @param prefix the namespace of the keys without the trailing dot, the empty string means all keys.
+     * @return the matching keys in order
+     */
+    public List<String> keysOf( String prefix ) {
+        int [] range = rangeOf( prefix );
+        List<String> results = new ArrayList<>( range[ 2 ] - range[ 1 ] + ( range[ 0 ] < 0 ? 0 : 1 ) );
+        if ( range[ 0 ] >= 0 ) {
+            results.add( keys[ range[ 0 ] ] );
+        }
+        results.addAll( Arrays.asList( keys ).subList( range[ 1 ], range[ 2 ] ) );
+        return results;
+    }
+
+    /**
+     * Find the dictionaries of a namespace
+     * 
+     * @param prefix the namespace of the keys without the trailing dot, the empty string means all keys.
+     * @return the dictionaries of the matching keys, in the order of the keys and then the order of the list.
+     * @see #keysOf(String)
+     */
+    public List<Dictionary> dictsOf( String prefix ) {
+        int [] range = rangeOf( prefix );
+        int exact = range[ 0 ];
+        int own = exact < 0 ? 0 : starts[ exact + 1 ] - starts[ exact ];
+        List<Dictionary> results = new ArrayList<>( own + starts[ range[ 2 ] ] - starts[ range[ 1 ] ] );
+        if ( own > 0 ) {
+            addRows( results, starts[ exact ], starts[ exact + 1 ] );
+        }
+        addRows( results, starts[ range[ 1 ] ], starts[ range[ 2 ] ] );
+        return results;
+    }
+
+    /**
+     * Find the dictionaries of a namespace by scanning the list once without building an index, which is cheaper for
+     * a list that is only read once, the result is the same as {@link #dictsOf(String)} of the index of the list.
+     * 
+     * @param dicts  the dictionaries of all keys
+     * @param prefix the namespace of the keys without the trailing dot, the empty string means all keys.
+     * @return the dictionaries of the matching keys, in the order of the keys and then the order of the list.
+     */
+    public static List<Dictionary> scan( List<Dictionary> dicts, String prefix ) {
+        List<Dictionary> results = new ArrayList<>();
+        if ( dicts == null ) {
+            return results;
+        }
+        int length = prefix.length();
+        for ( Dictionary dict : dicts ) {
+            String key = dict.getKey();
+            if ( key != null && key.startsWith( prefix )
+                    && ( length == 0 || key.length() == length || key.charAt( length ) == '.' ) ) {
+                results.add( dict );
+            }
+        }
+        // The sort is stable, so the rows of each key stay in the list order
+        results.sort( Comparator.comparing( Dictionary::getKey ) );
+        return results;
+    }
+
+    /**
+     * Get the namespace of a key prefix
+     * 
+     * @param prefix the key prefix, a trailing ".*" or "." is ignored.
+     * @return the prefix without the trailing ".*" or "."
+     */
+    public static String namespace( String prefix ) {
+        if ( prefix.endsWith( ".*" ) ) {
+            return prefix.substring( 0, prefix.length() - 2 );
+        }
+        return prefix.endsWith( "." ) ? prefix.substring( 0, prefix.length() - 1 ) : prefix;
+    }
+
+    /**
+     * @return the number of distinct keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return { the position of the prefix itself or -1, the first and the end position of the keys below it }
+     */
+    private int [] rangeOf( String prefix ) {
+        if ( prefix.isEmpty() ) {
+            return new int [] { -1, 0, keys.length };
+        }
+        // The keys after the dot of the namespace sort before the ones after '/', which is the next character
+        int exact = Arrays.binarySearch( keys, prefix );
+        return new int [] { exact < 0 ? -1 : exact, lowerBound( prefix + '.' ), lowerBound( prefix + '/' ) };
+    }
+
+    /**
+     * @return the position of the first key which is not less than the given one
+     */
+    private int lowerBound( String key ) {
+        int low = 0, high = keys.length;
+        while ( low < high ) {
+            int middle = ( low + high ) >>> 1;
+            if ( keys[ middle ].compareTo( key ) < 0 ) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void addRows( List<Dictionary> results, int from, int to ) {
+        for ( int i = from; i < to; i ++ ) {
+            results.add( source.get( rows[ i ] ) );
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
 import com.viiyue.plugins.dict.spring.boot.dialect.SqlResolver;
 import com.viiyue.plugins.dict.spring.boot.function.IdResolver;
 import com.viiyue.plugins.dict.spring.boot.function.LanguageResolver;
+import com.viiyue.plugins.dict.spring.boot.metrics.DictionaryRecorder;
 
 /**
  * Composite parametric bridges for the integration of complex parameters
@@ -39,23 +40,38 @@ public class ParameterBridge {
     private final IdResolver idResolver;
     private final SqlResolver sqlResolver;
     private final LanguageResolver languageResolver;
+    private final DictionaryRecorder recorder;
 
     public ParameterBridge( DictionaryProperties props, IdResolver idResolver, SqlResolver sqlResolver,
             LanguageResolver languageResolver ) {
+        this( props, idResolver, sqlResolver, languageResolver, DictionaryRecorder.NONE );
+    }
+
+    public ParameterBridge( DictionaryProperties props, IdResolver idResolver, SqlResolver sqlResolver,
+            LanguageResolver languageResolver, DictionaryRecorder recorder ) {
         this.props = props;
         this.idResolver = idResolver;
         this.sqlResolver = sqlResolver;
         this.languageResolver = languageResolver;
+        this.recorder = recorder == null ? DictionaryRecorder.NONE : recorder;
     }
 
     public DictionaryProperties props() {
         return this.props;
     }
 
+    public DictionaryRecorder recorder() {
+        return this.recorder;
+    }
+
     public Long nextId() {
         return idResolver.nextId();
     }
 
+    public long [] nextIds( int count ) {
+        return idResolver.nextIds( count );
+    }
+
     public boolean hasIdResolver() {
         return idResolver != null;
     }
@@ -130,23 +146,29 @@ public class ParameterBridge {
             if ( isLogEnable() ) {
                 printLog( "Query in the default language ..." );
             }
+            recorder.fallback( null, 0 );
             return fun.apply( null );
         }
         
         if ( isLogEnable() ) {
             printLog( "Query in the given language: \"{}\" ...", language );
         }
+        String requested = language;
         T returnedValue = fun.apply( language );
         if ( !isEmpty( returnedValue ) ) {
+            recorder.fallback( requested, 0 );
             return returnedValue;
         }
+        int depth = 0;
         for ( int index = 0; ( index = language.lastIndexOf( '_' ) ) > -1; ) {
             language = language.substring( 0, index );
             if ( isLogEnable() ) {
                 printLog( "Fallback uses \"{}\" to query ...", language );
             }
+            depth ++;
             returnedValue = fun.apply( language );
             if ( !isEmpty( returnedValue ) ) {
+                recorder.fallback( requested, depth );
                 return returnedValue;
             }
         }
@@ -154,6 +176,7 @@ public class ParameterBridge {
         if ( isLogEnable() ) {
             printLog( "Finally, try it in the default language ..." );
         }
+        recorder.fallback( requested, depth + 1 );
         return fun.apply( null );
     }
 
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.metrics;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Dispatches the records to several recorders
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+final class CompositeDictionaryRecorder implements DictionaryRecorder {
+
+    private final DictionaryRecorder [] recorders;
+
+    CompositeDictionaryRecorder( List<DictionaryRecorder> recorders ) {
+        this.recorders = recorders.toArray( new DictionaryRecorder[ recorders.size() ] );
+    }
+
+    @Override
+    public void cacheGet( String backend, Object cacheKey, boolean hit ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.cacheGet( backend, cacheKey, hit );
+        }
+    }
+
+    @Override
+    public void cacheSet( String backend, Object cacheKey ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.cacheSet( backend, cacheKey );
+        }
+    }
+
+    @Override
+    public void cacheClear( String backend, Object cacheKey, boolean cleared ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.cacheClear( backend, cacheKey, cleared );
+        }
+    }
+
+    @Override
+    public void lookup( String backend, String language, String key, boolean hit, long nanos ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.lookup( backend, language, key, hit, nanos );
+        }
+    }
+
+    @Override
+    public void load( String backend, String operation, String language, String key, int rows, long nanos ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.load( backend, operation, language, key, rows, nanos );
+        }
+    }
+
+    @Override
+    public void reload( String backend, String language, String key, int rows, long nanos ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.reload( backend, language, key, rows, nanos );
+        }
+    }
+
+    @Override
+    public void invalidate( String backend, String language, Collection<String> keys ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.invalidate( backend, language, keys );
+        }
+    }
+
+    @Override
+    public void fallback( String language, int depth ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.fallback( language, depth );
+        }
+    }
+
+    @Override
+    public void statement( String sql, long nanos, boolean succeeded ) {
+        for ( DictionaryRecorder recorder : recorders ) {
+            recorder.statement( sql, nanos, succeeded );
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records what the dictionary managers do, such as cache accesses, data loading and SQL statements. All methods do
+ * nothing by default, so an implementation only needs to override what it cares about. The methods are called on the
+ * lookup paths, the implementations should be cheap and must not throw exceptions.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public interface DictionaryRecorder {
+
+    /** The recorder which records nothing */
+    DictionaryRecorder NONE = new DictionaryRecorder() {};
+
+    /**
+     * A value is read from the cache
+     * 
+     * @param backend  the cache backend, such as "memory" and "redis".
+     * @param cacheKey the cache key
+     * @param hit      whether the value exists in the cache
+     */
+    default void cacheGet( String backend, Object cacheKey, boolean hit ) {}
+
+    /**
+     * A value is written into the cache
+     * 
+     * @param backend  the cache backend
+     * @param cacheKey the cache key
+     */
+    default void cacheSet( String backend, Object cacheKey ) {}
+
+    /**
+     * A value is removed from the cache
+     * 
+     * @param backend  the cache backend
+     * @param cacheKey the cache key
+     * @param cleared  whether the value existed
+     */
+    default void cacheClear( String backend, Object cacheKey, boolean cleared ) {}
+
+    /**
+     * The dictionaries of a key are looked up
+     * 
+     * @param backend  the cache backend
+     * @param language the requested language, {@code null} means default.
+     * @param key      the dictionary key
+     * @param hit      whether they were found in the cache without loading from the database
+     * @param nanos    the elapsed nanoseconds
+     */
+    default void lookup( String backend, String language, String key, boolean hit, long nanos ) {}
+
+    /**
+     * The cache missed, and the dictionaries are loaded from the database into the cache
+     * 
+     * @param backend   the cache backend
+     * @param operation the loading operation, such as "key", "all", "expand" and "languages".
+     * @param language  the language, {@code null} means default.
+     * @param key       the dictionary key, {@code null} if it is not loaded by key.
+     * @param rows      the number of loaded rows
+     * @param nanos     the elapsed nanoseconds
+     */
+    default void load( String backend, String operation, String language, String key, int rows, long nanos ) {}
+
+    /**
+     * The cached dictionaries are reloaded after they have been changed
+     * 
+     * @param backend  the cache backend
+     * @param language the language, {@code null} means default.
+     * @param key      the dictionary key, {@code null} means the all list of the language.
+     * @param rows     the number of reloaded rows
+     * @param nanos    the elapsed nanoseconds
+     */
+    default void reload( String backend, String language, String key, int rows, long nanos ) {}
+
+    /**
+     * The dictionaries are changed and their dependents are invalidated
+     * 
+     * @param backend  the cache backend
+     * @param language the language, {@code null} means default.
+     * @param keys     the changed dictionary keys, {@code null} means all keys of the language.
+     */
+    default void invalidate( String backend, String language, Collection<String> keys ) {}
+
+    /**
+     * A language is resolved, the depth is the number of fallbacks before the data is found
+     * 
+     * @param language the requested language, {@code null} means default.
+     * @param depth    0 means found in the requested language
+     */
+    default void fallback( String language, int depth ) {}
+
+    /**
+     * A SQL statement is executed
+     * 
+     * @param sql       the SQL text
+     * @param nanos     the elapsed nanoseconds
+     * @param succeeded whether the statement succeeded
+     */
+    default void statement( String sql, long nanos, boolean succeeded ) {}
+
+    /**
+     * Combine several recorders into one
+     * 
+     * @param recorders the recorders
+     * @return the combined recorder
+     */
+    static DictionaryRecorder of( Collection<? extends DictionaryRecorder> recorders ) {
+        List<DictionaryRecorder> actives = new ArrayList<>( recorders == null ? 0 : recorders.size() );
+        if ( recorders != null ) {
+            for ( DictionaryRecorder recorder : recorders ) {
+                if ( recorder != null && recorder != NONE ) {
+                    actives.add( recorder );
+                }
+            }
+        }
+        if ( actives.isEmpty() ) {
+            return NONE;
+        }
+        return actives.size() == 1 ? actives.get( 0 ) : new CompositeDictionaryRecorder( actives );
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.metrics;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.viiyue.plugins.dict.spring.boot.function.DictionaryChangeListener;
+
+/**
+ * Collects the lookup and change statistics of each language and dictionary key in memory. The number of tracked
+ * languages and keys is limited, the ones beyond the limits are not tracked.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public class DictionaryStatistics implements DictionaryRecorder, DictionaryChangeListener {
+
+    /** The name of the default language in the statistics */
+    public static final String DEFAULT_LANGUAGE = "default";
+
+    private static final int MAX_LANGUAGES = 64;
+    private static final int MAX_KEYS = 4096;
+
+    private final Map<String, LanguageStatistics> languages = new ConcurrentHashMap<>( 16 );
+    private final Map<String, LongAdder> keys = new ConcurrentHashMap<>( 256 );
+
+    @Override
+    public void lookup( String backend, String language, String key, boolean hit, long nanos ) {
+        LanguageStatistics statistics = statistics( language );
+        if ( statistics != null ) {
+            ( hit ? statistics.hits : statistics.misses ).increment();
+        }
+        LongAdder counter = keys.get( key );
+        if ( counter == null ) {
+            if ( keys.size() >= MAX_KEYS ) {
+                return;
+            }
+            counter = keys.computeIfAbsent( key, k -> new LongAdder() );
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void load( String backend, String operation, String language, String key, int rows, long nanos ) {
+        LanguageStatistics statistics = statistics( language );
+        if ( statistics != null ) {
+            statistics.lastLoaded = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void onChanged( String language, Collection<String> keys ) {
+        LanguageStatistics statistics = statistics( language );
+        if ( statistics != null ) {
+            statistics.version.incrementAndGet();
+            statistics.lastChanged = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @param language the language, {@code null} means default.
+     * @return the statistics of the language, {@code null} if it is not tracked.
+     */
+    public LanguageStatistics get( String language ) {
+        return languages.get( nameOf( language ) );
+    }
+
+    /**
+     * @param limit the maximum number of keys
+     * @return the most looked up keys and their lookup counts, in descending order of the counts.
+     */
+    public Map<String, Long> hotKeys( int limit ) {
+        List<Entry<String, Long>> counts = new ArrayList<>( keys.size() );
+        for ( Entry<String, LongAdder> entry : keys.entrySet() ) {
+            counts.add( new SimpleImmutableEntry<>( entry.getKey(), entry.getValue().sum() ) );
+        }
+        counts.sort( Entry.<String, Long>comparingByValue( Comparator.reverseOrder() ) );
+        Map<String, Long> hotKeys = new LinkedHashMap<>( Math.min( limit, counts.size() ) << 1 );
+        for ( int i = 0, size = Math.min( limit, counts.size() ); i < size; i ++ ) {
+            Entry<String, Long> entry = counts.get( i );
+            hotKeys.put( entry.getKey(), entry.getValue() );
+        }
+        return hotKeys;
+    }
+
+    private LanguageStatistics statistics( String language ) {
+        String name = nameOf( language );
+        LanguageStatistics statistics = languages.get( name );
+        if ( statistics == null && languages.size() < MAX_LANGUAGES ) {
+            statistics = languages.computeIfAbsent( name, n -> new LanguageStatistics() );
+        }
+        return statistics;
+    }
+
+    private static String nameOf( String language ) {
+        return language == null || language.isEmpty() ? DEFAULT_LANGUAGE : language;
+    }
+
+    /**
+     * The statistics of one language
+     */
+    public static final class LanguageStatistics {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final AtomicLong version = new AtomicLong();
+        private volatile long lastLoaded;
+        private volatile long lastChanged;
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public double getHitRate() {
+            long hits = getHits();
+            long total = hits + getMisses();
+            return total == 0 ? 0 : ( double ) hits / total;
+        }
+
+        /** The version is increased on every change of the language */
+        public long getVersion() {
+            return version.get();
+        }
+
+        /** The epoch milliseconds of the last loading from the database, 0 means never. */
+        public long getLastLoaded() {
+            return lastLoaded;
+        }
+
+        /** The epoch milliseconds of the last change, 0 means never. */
+        public long getLastChanged() {
+            return lastChanged;
+        }
+
+    }
+
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.metrics;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Emits the dictionary work as Java Flight Recorder events, so that it can be told apart from other map and Redis
+ * frames in a recording:
+ * 
+ * <ul>
+ * <li><b>DictionaryLookup</b> - the dictionaries of a key are looked up</li>
+ * <li><b>DictionaryLoad</b> - the cache missed and the dictionaries are loaded from the database</li>
+ * <li><b>DictionaryReload</b> - the cached dictionaries are reloaded after they have been changed</li>
+ * <li><b>DictionaryInvalidation</b> - the dictionaries are changed and their dependents are invalidated</li>
+ * </ul>
+ * 
+ * <p>
+ * The events are defined at runtime through {@code jdk.jfr.EventFactory}, so this class still loads on runtimes
+ * without the {@code jdk.jfr} module, where {@link #isAvailable()} returns {@code false}. Since the events are
+ * committed after the work has been done, their durations are carried in the "elapsed" field, and the events faster
+ * than the thresholds are dropped before they are created. Nothing but the enabled check is done if the event is not
+ * enabled in the current recording.
+ * </p>
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public class FlightRecorderDictionaryRecorder implements DictionaryRecorder {
+
+    private static final String EVENT_PREFIX = "com.viiyue.plugins.dict.";
+    private static final String [] CATEGORY = { "Dictionary Map" };
+
+    private final EventKind lookupEvent;
+    private final EventKind loadEvent;
+    private final EventKind reloadEvent;
+    private final EventKind invalidationEvent;
+    private final long lookupThreshold;
+    private final long loadThreshold;
+
+    /**
+     * @param lookupThreshold the minimum nanoseconds of the recorded lookups
+     * @param loadThreshold   the minimum nanoseconds of the recorded loads and reloads
+     */
+    public FlightRecorderDictionaryRecorder( long lookupThreshold, long loadThreshold ) {
+        this.lookupThreshold = lookupThreshold;
+        this.loadThreshold = loadThreshold;
+        try {
+            this.lookupEvent = new EventKind( "DictionaryLookup", "Dictionary Lookup",
+                    "The dictionaries of a key are looked up", Arrays.asList( 
+                    field( String.class, "key", "Key" ), 
+                    field( String.class, "language", "Language" ),
+                    field( String.class, "backend", "Backend" ), 
+                    field( boolean.class, "hit", "Cache Hit" ), 
+                    elapsed() ) );
+            this.loadEvent = new EventKind( "DictionaryLoad", "Dictionary Load",
+                    "The cache missed and the dictionaries are loaded from the database", Arrays.asList(
+                    field( String.class, "operation", "Operation" ), 
+                    field( String.class, "key", "Key" ),
+                    field( String.class, "language", "Language" ), 
+                    field( String.class, "backend", "Backend" ),
+                    field( int.class, "rows", "Rows" ), 
+                    elapsed() ) );
+            this.reloadEvent = new EventKind( "DictionaryReload", "Dictionary Reload",
+                    "The cached dictionaries are reloaded after they have been changed", Arrays.asList( 
+                    field( String.class, "key", "Key" ), 
+                    field( String.class, "language", "Language" ),
+                    field( String.class, "backend", "Backend" ), 
+                    field( int.class, "rows", "Rows" ), 
+                    elapsed() ) );
+            this.invalidationEvent = new EventKind( "DictionaryInvalidation", "Dictionary Invalidation",
+                    "The dictionaries are changed and their dependents are invalidated", Arrays.asList(
+                    field( String.class, "keys", "Keys" ), 
+                    field( String.class, "language", "Language" ),
+                    field( String.class, "backend", "Backend" ), 
+                    field( int.class, "rows", "Key Count" ) ) );
+        } catch ( Throwable e ) {
+            throw new IllegalStateException( "Java Flight Recorder events cannot be defined: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * @return whether the runtime supports custom Java Flight Recorder events
+     */
+    public static boolean isAvailable() {
+        return ClassUtils.isPresent( "jdk.jfr.EventFactory", FlightRecorderDictionaryRecorder.class.getClassLoader() );
+    }
+
+    @Override
+    public void lookup( String backend, String language, String key, boolean hit, long nanos ) {
+        if ( nanos >= lookupThreshold && lookupEvent.isEnabled() ) {
+            lookupEvent.commit( key, language, backend, hit, nanos );
+        }
+    }
+
+    @Override
+    public void load( String backend, String operation, String language, String key, int rows, long nanos ) {
+        if ( nanos >= loadThreshold && loadEvent.isEnabled() ) {
+            loadEvent.commit( operation, key, language, backend, rows, nanos );
+        }
+    }
+
+    @Override
+    public void reload( String backend, String language, String key, int rows, long nanos ) {
+        if ( nanos >= loadThreshold && reloadEvent.isEnabled() ) {
+            reloadEvent.commit( key, language, backend, rows, nanos );
+        }
+    }
+
+    @Override
+    public void invalidate( String backend, String language, Collection<String> keys ) {
+        if ( invalidationEvent.isEnabled() ) {
+            String names = keys == null ? null : StringUtils.collectionToCommaDelimitedString( keys );
+            invalidationEvent.commit( names, language, backend, keys == null ? -1 : keys.size() );
+        }
+    }
+
+    private static Object elapsed() throws Exception {
+        return field( long.class, "elapsed", "Elapsed", annotation( "jdk.jfr.Timespan", "NANOSECONDS" ) );
+    }
+
+    private static Object field( Class<?> type, String name, String label, Object ... annotations ) throws Exception {
+        List<Object> elements = new ArrayList<>( annotations.length + 1 );
+        elements.add( annotation( "jdk.jfr.Label", label ) );
+        elements.addAll( Arrays.asList( annotations ) );
+        Constructor<?> constructor = jfr( "jdk.jfr.ValueDescriptor" ).getConstructor( Class.class, String.class,
+                List.class );
+        return constructor.newInstance( type, name, elements );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Object annotation( String annotationType, Object value ) throws Exception {
+        Constructor<?> constructor = jfr( "jdk.jfr.AnnotationElement" ).getConstructor( Class.class, Object.class );
+        return constructor.newInstance( ( Class<? extends Annotation> ) jfr( annotationType ), value );
+    }
+
+    private static Class<?> jfr( String className ) throws ClassNotFoundException {
+        return ClassUtils.forName( className, FlightRecorderDictionaryRecorder.class.getClassLoader() );
+    }
+
+    /**
+     * A dynamically defined event type, the handles are bound to its event factory.
+     */
+    private static final class EventKind {
+
+        private final Object factory; // Keep the factory, the event type is unregistered once it is collected
+        private final MethodHandle isEnabled;
+        private final MethodHandle newEvent;
+        private final MethodHandle set;
+        private final MethodHandle commit;
+
+        EventKind( String name, String label, String description, List<Object> fields ) throws Throwable {
+            Lookup lookup = MethodHandles.publicLookup();
+            Class<?> factoryType = jfr( "jdk.jfr.EventFactory" );
+            Class<?> eventType = jfr( "jdk.jfr.Event" );
+            Class<?> typeType = jfr( "jdk.jfr.EventType" );
+
+            List<Object> annotations = Arrays.asList( 
+                annotation( "jdk.jfr.Name", EVENT_PREFIX + name ),
+                annotation( "jdk.jfr.Label", label ), 
+                annotation( "jdk.jfr.Description", description ),
+                annotation( "jdk.jfr.Category", CATEGORY.clone() ) );
+            this.factory = lookup.findStatic( factoryType, "create", methodType( factoryType, List.class, List.class ) )
+                    .invoke( annotations, Collections.unmodifiableList( fields ) );
+
+            Object type = lookup.findVirtual( factoryType, "getEventType", methodType( typeType ) ).invoke( factory );
+            this.isEnabled = lookup.findVirtual( typeType, "isEnabled", methodType( boolean.class ) ).bindTo( type );
+            this.newEvent = lookup.findVirtual( factoryType, "newEvent", methodType( eventType ) ).bindTo( factory )
+                    .asType( methodType( Object.class ) );
+            this.set = lookup.findVirtual( eventType, "set", methodType( void.class, int.class, Object.class ) )
+                    .asType( methodType( void.class, Object.class, int.class, Object.class ) );
+            this.commit = lookup.findVirtual( eventType, "commit", methodType( void.class ) )
+                    .asType( methodType( void.class, Object.class ) );
+        }
+
+        boolean isEnabled() {
+            try {
+                return ( boolean ) isEnabled.invokeExact();
+            } catch ( Throwable e ) {
+                return false;
+            }
+        }
+
+        void commit( Object ... values ) {
+            try {
+                Object event = ( Object ) newEvent.invokeExact();
+                for ( int i = 0; i < values.length; i ++ ) {
+                    set.invokeExact( event, i, values[ i ] );
+                }
+                commit.invokeExact( event );
+            } catch ( Throwable e ) {
+                // Recording must never break the dictionary lookups
+            }
+        }
+
+    }
+
+}
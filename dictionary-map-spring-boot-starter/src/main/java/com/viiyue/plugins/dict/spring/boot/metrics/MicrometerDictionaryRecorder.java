@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.viiyue.plugins.dict.spring.boot.manager.core.CacheableResolver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Records the dictionary activities as Micrometer meters, the meters are registered once the recorder is bound to a
+ * registry. The tags only take values from small fixed sets, and the languages beyond {@value #MAX_LANGUAGES} are
+ * tagged as "other", so the number of meters stays bounded no matter what languages the requests carry.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public class MicrometerDictionaryRecorder implements DictionaryRecorder, MeterBinder {
+
+    private static final int MAX_LANGUAGES = 16;
+    private static final String DEFAULT_LANGUAGE = "default";
+    private static final String OTHER = "other";
+
+    private final Supplier<CacheableResolver<?>> resolver;
+    private final Map<String, CacheMeters> caches = new ConcurrentHashMap<>( 4 );
+    private final Map<String, Map<String, Timer>> loads = new ConcurrentHashMap<>( 8 );
+    private final Map<String, Timer> statements = new ConcurrentHashMap<>( 16 );
+    private final Set<String> languages = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry registry;
+    private volatile DistributionSummary fallbacks;
+
+    /**
+     * @param resolver the cache resolver whose entries are measured, it is resolved when the recorder is bound.
+     */
+    public MicrometerDictionaryRecorder( Supplier<CacheableResolver<?>> resolver ) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry ) {
+        this.fallbacks = DistributionSummary.builder( "dictionary.language.fallback.depth" )
+                .description( "The number of language fallbacks before the dictionaries are found" )
+                .register( registry );
+        CacheableResolver<?> cacheable = resolver == null ? null : resolver.get();
+        if ( cacheable != null ) {
+            Gauge.builder( "dictionary.cache.entries", cacheable, MicrometerDictionaryRecorder::entries )
+                    .description( "The number of cached entries, NaN if the backend cannot count them cheaply" )
+                    .tag( "backend", cacheable.backend() )
+                    .register( registry );
+        }
+        this.registry = registry;
+    }
+
+    @Override
+    public void cacheGet( String backend, Object cacheKey, boolean hit ) {
+        CacheMeters meters = cacheMeters( backend );
+        if ( meters != null ) {
+            ( hit ? meters.hits : meters.misses ).increment();
+        }
+    }
+
+    @Override
+    public void cacheSet( String backend, Object cacheKey ) {
+        CacheMeters meters = cacheMeters( backend );
+        if ( meters != null ) {
+            meters.sets.increment();
+        }
+    }
+
+    @Override
+    public void cacheClear( String backend, Object cacheKey, boolean cleared ) {
+        CacheMeters meters = cacheMeters( backend );
+        if ( meters != null ) {
+            meters.clears.increment();
+        }
+    }
+
+    @Override
+    public void load( String backend, String operation, String language, String key, int rows, long nanos ) {
+        MeterRegistry registry = this.registry;
+        if ( registry != null ) {
+            String languageTag = languageTag( language );
+            loads.computeIfAbsent( operation, op -> new ConcurrentHashMap<>( 8 ) ).computeIfAbsent( languageTag,
+                    lang -> Timer.builder( "dictionary.load" )
+                            .description( "The time of loading dictionaries from the database into the cache" )
+                            .tag( "operation", operation ).tag( "language", lang )
+                            .register( registry ) )
+                    .record( nanos, TimeUnit.NANOSECONDS );
+        }
+    }
+
+    @Override
+    public void fallback( String language, int depth ) {
+        DistributionSummary fallbacks = this.fallbacks;
+        if ( fallbacks != null ) {
+            fallbacks.record( depth );
+        }
+    }
+
+    @Override
+    public void statement( String sql, long nanos, boolean succeeded ) {
+        MeterRegistry registry = this.registry;
+        if ( registry != null ) {
+            String operation = operationOf( sql );
+            String outcome = succeeded ? "success" : "error";
+            statements.computeIfAbsent( succeeded ? operation : operation + ":error",
+                    name -> Timer.builder( "dictionary.jdbc" )
+                            .description( "The time of the SQL statements executed by the dictionary managers" )
+                            .tag( "operation", operation ).tag( "outcome", outcome )
+                            .register( registry ) )
+                    .record( nanos, TimeUnit.NANOSECONDS );
+        }
+    }
+
+    private CacheMeters cacheMeters( String backend ) {
+        MeterRegistry registry = this.registry;
+        if ( registry == null ) {
+            return null;
+        }
+        CacheMeters meters = caches.get( backend );
+        if ( meters == null ) {
+            meters = caches.computeIfAbsent( backend, name -> new CacheMeters( registry, name ) );
+        }
+        return meters;
+    }
+
+    private String languageTag( String language ) {
+        if ( language == null || language.isEmpty() ) {
+            return DEFAULT_LANGUAGE;
+        }
+        if ( languages.contains( language ) ) {
+            return language;
+        }
+        if ( languages.size() < MAX_LANGUAGES && languages.add( language ) ) {
+            return language;
+        }
+        return languages.contains( language ) ? language : OTHER;
+    }
+
+    private static String operationOf( String sql ) {
+        String text = sql.trim();
+        int end = 0;
+        while ( end < text.length() && Character.isLetter( text.charAt( end ) ) ) {
+            end ++;
+        }
+        String operation = text.substring( 0, end ).toLowerCase( Locale.ENGLISH );
+        switch ( operation ) {
+            case "select":
+            case "insert":
+            case "update":
+            case "delete":
+                return operation;
+            default:
+                return OTHER;
+        }
+    }
+
+    private static double entries( CacheableResolver<?> cacheable ) {
+        long size = cacheable.size();
+        return size < 0 ? Double.NaN : size;
+    }
+
+    private static final class CacheMeters {
+
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter sets;
+        private final Counter clears;
+
+        private CacheMeters( MeterRegistry registry, String backend ) {
+            this.hits = counter( registry, backend, "get", "hit" );
+            this.misses = counter( registry, backend, "get", "miss" );
+            this.sets = counter( registry, backend, "set", "none" );
+            this.clears = counter( registry, backend, "clear", "none" );
+            Gauge.builder( "dictionary.cache.hit.ratio", this, CacheMeters::hitRatio )
+                    .description( "The ratio of cache reads that found a value" )
+                    .tag( "backend", backend )
+                    .register( registry );
+        }
+
+        private double hitRatio() {
+            double hits = this.hits.count();
+            double total = hits + misses.count();
+            return total == 0 ? Double.NaN : hits / total;
+        }
+
+        private static Counter counter( MeterRegistry registry, String backend, String operation, String result ) {
+            return Counter.builder( "dictionary.cache.requests" )
+                    .description( "The number of dictionary cache operations" )
+                    .tag( "backend", backend ).tag( "operation", operation ).tag( "result", result )
+                    .register( registry );
+        }
+
+    }
+
+}
@@ -15,7 +15,9 @@
  */
 package com.viiyue.plugins.dict.spring.boot.utils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,15 +57,67 @@ public class Helper {
         return null;
     }
 
+    /**
+     * Parse the text as a decimal integer without throwing exceptions
+     * 
+     * @param str the text
+     * @return the integer value, or {@code null} if it is not an integer.
+     */
     public static Integer toInt( final String str ) {
         if ( str == null ) {
             return null;
         }
-        try {
-            return Integer.parseInt( str );
-        } catch ( final NumberFormatException nfe ) {
-            return null;
+        final int length = str.length();
+        if ( length == 0 || length > 11 ) {
+            return null; // "-2147483648" has 11 characters
+        }
+        int index = 0;
+        boolean negative = false;
+        char first = str.charAt( 0 );
+        if ( first == '-' || first == '+' ) {
+            if ( length == 1 ) {
+                return null;
+            }
+            negative = first == '-';
+            index ++;
+        }
+        long value = 0;
+        for ( ; index < length; index ++ ) {
+            char ch = str.charAt( index );
+            if ( ch < '0' || ch > '9' ) {
+                return null;
+            }
+            value = value * 10 + ( ch - '0' );
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : Integer.valueOf( ( int ) value );
+    }
+
+    /**
+     * Slice the branch of a namespace from the expanded dictionaries, the maps on the path of the namespace are kept
+     * with the branch as their only entry.
+     * 
+     * @param expanded  the expanded dictionaries of all keys
+     * @param namespace the namespace of the keys without the trailing dot
+     * @return the part of the expanded dictionaries under the namespace, or an empty map if there is nothing under it.
+     */
+    public static final Map<String, Object> branch( final Map<String, Object> expanded, final String namespace ) {
+        String [] segments = namespace.split( "\\.", -1 );
+        Object value = expanded;
+        for ( String segment : segments ) {
+            if ( !( value instanceof Map ) ) {
+                return Collections.emptyMap();
+            }
+            value = ( ( Map<?, ?> ) value ).get( segment );
+        }
+        if ( value == null ) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> branch = Collections.singletonMap( segments[ segments.length - 1 ], value );
+        for ( int i = segments.length - 2; i >= 0; i -- ) {
+            branch = Collections.singletonMap( segments[ i ], branch );
         }
+        return branch;
     }
 
     public static final String toUnderscore( final String text ) {
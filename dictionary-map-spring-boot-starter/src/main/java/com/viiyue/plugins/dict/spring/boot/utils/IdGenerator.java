@@ -15,9 +15,8 @@
  */
 package com.viiyue.plugins.dict.spring.boot.utils;
 
-import java.util.Random;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p> Twitter Snowflake Id
@@ -36,52 +35,60 @@ import java.util.concurrent.locks.ReentrantLock;
  * SnowFlake的优点是，整体上按照时间自增排序，并且整个分布式系统内不会产生ID碰撞(由数据中心ID和机器ID作区分)，并且效率较高，经测试，SnowFlake每秒能够产生26万ID左右。
  * </p>
  * 
+ * <p>
+ * 时间截与序列合并为一个原子变量，通过CAS无锁递增，毫秒内序列用尽时直接借用下一毫秒而不是自旋等待，
+ * 时钟小幅回拨时继续沿用已借用的时间截，只有超前系统时钟超过 {@value #MAX_DRIFT_MILLIS} 毫秒时才拒绝生成。
+ * {@link #nextIds(int)} 通过一次CAS预留一段连续的Id，适用于批量插入。
+ * </p>
+ * 
  * @author Twitter
  * @author tangxbai
  * @since 1.1.0
  */
 public class IdGenerator {
 
-	private static IdGenerator generator = null;
+	private static volatile IdGenerator generator = null;
 	private static final String workerIdErrorMessage = "worker Id can't be greater than %d or less than 0";
 	private static final String dataCenterIdErrorMessage = "datacenter Id can't be greater than %d or less than 0";
-	private static final String clockBackwardErrorMessage = "Clock moved backwards. Refusing to generate id for %d milliseconds";
+	private static final String clockDriftErrorMessage = "The ids are %d milliseconds ahead of the clock, "
+			+ "the clock moved backwards or large batches outran it. Refusing to generate id";
+	
+	/** The maximum milliseconds that the generated timestamp can be ahead of the system clock */
+	public static final long MAX_DRIFT_MILLIS = 5000L;
 
 	/** Worker Id [ 0-31 ] */
-	private long workerId;
+	private final long workerId;
 	/** Data center Id [ 0-31 ] */
-	private long dataCenterId;
+	private final long dataCenterId;
 	
-	/** Sync object for non-fair locks */
-	private final Lock lock = new ReentrantLock();
 	/** Start timestamp ( 2019-01-01 ) */
 	private final long startTimestamp = 1548950400000L;
 
 	/** The number of bits in the machine Id */
-	private final int workerIdBits = 5;
+	private static final int workerIdBits = 5;
 	/** The number of digits in the data identifier Id */
-	private final int dataCenterIdBits = 5;
+	private static final int dataCenterIdBits = 5;
 	/** The number of bits in the sequence in the Id */
-	private final int sequenceBits = 12;
+	private static final int sequenceBits = 12;
 
 	/** The maximum machine Id supported, the result is 31 */
-	private final int maxWorkerId = ~ ( -1 << workerIdBits );
+	private static final int maxWorkerId = ~ ( -1 << workerIdBits );
 	/** The maximum supported data identifier Id, the result is 31 */
-	private final int maxDataCenterId = ~ ( -1 << dataCenterIdBits );
+	private static final int maxDataCenterId = ~ ( -1 << dataCenterIdBits );
 	/** Generate a mask for the sequence, here 4095 ( 0b111111111111 = 0xfff = 4095 ) */
-	private final int maxSequenceMask = ~ ( -1 << sequenceBits );
+	private static final int maxSequenceMask = ~ ( -1 << sequenceBits );
 	
 	/** Machine Id shifts 12 bits to the left */
-	private final long workerIdShift = sequenceBits;
+	private static final long workerIdShift = sequenceBits;
 	/** Data ID Id is shifted to the left by 17 digits ( 12 + 5 ) */
-	private final int dataCenterIdShift = sequenceBits + workerIdBits;
+	private static final int dataCenterIdShift = sequenceBits + workerIdBits;
 	/** Time is shifted to the left by 22 bits ( 5 + 5 + 12 ) */
-	private final int timestampShift = sequenceBits + workerIdBits + dataCenterIdBits;
+	private static final int timestampShift = sequenceBits + workerIdBits + dataCenterIdBits;
 	
-	/** Sequence within milliseconds [ 0-4095 ] */
-	private volatile long sequence = 0L;
-	/** The time when the last Id was generated */
-	private volatile long lastTimestamp = 0L;
+	/** The node bits of this generator ( data center Id and worker Id ) */
+	private final long node;
+	/** The last generated time ( relative to the start timestamp ) and sequence, {@code time << 12 | sequence} */
+	private final AtomicLong last = new AtomicLong();
 	
 	/**
 	 * Constructor initializes machine Id and data center Id
@@ -89,7 +96,7 @@ public class IdGenerator {
 	 * @param workerId worker id [ 0-31 ]
 	 * @param dataCenterId data center id [ 0-31 ]
 	 */
-	private IdGenerator( int workerId, int dataCenterId ) {
+	IdGenerator( int workerId, int dataCenterId ) {
 		if ( workerId > maxWorkerId || workerId < 0 ) {
 			throw new IllegalArgumentException( String.format( workerIdErrorMessage, maxWorkerId ) );
 		}
@@ -98,20 +105,25 @@ public class IdGenerator {
 		}
 		this.workerId = workerId;
 		this.dataCenterId = dataCenterId;
+		this.node = ( this.dataCenterId << dataCenterIdShift ) | ( this.workerId << workerIdShift );
 	}
-
+	
 	/**
-	 * Block until the next millisecond until a new timestamp is obtained
+	 * Get the worker id of this generator
 	 * 
-	 * @param lastTimestamp last generated timestamp
-	 * @return fixed timestamp
+	 * @return worker id [ 0-31 ]
 	 */
-	private long blockNextMillis( long lastTimestamp ) {
-		long current = timeGen();
-		while ( current <= lastTimestamp ) {
-			current = timeGen();
-		}
-		return current;
+	public long getWorkerId() {
+		return workerId;
+	}
+	
+	/**
+	 * Get the data center id of this generator
+	 * 
+	 * @return data center id [ 0-31 ]
+	 */
+	public long getDataCenterId() {
+		return dataCenterId;
 	}
 	
 	/**
@@ -119,40 +131,70 @@ public class IdGenerator {
 	 * 
 	 * @return current system time millis
 	 */
-	private long timeGen() {
+	long timeGen() {
 		return System.currentTimeMillis();
 	}
 	
 	/**
-	 * Get the next serialization Id
+	 * Reserve the next {@code count} consecutive time and sequence values, the sequence overflows into the next
+	 * millisecond instead of waiting for it.
 	 * 
-	 * @return next generated sequence id
+	 * @param count the number of values to reserve
+	 * @return the first reserved value
 	 */
-	private long createId() {
-		try {
-			lock.lock();
-			long currentTimestamp = timeGen();
-			if ( currentTimestamp < lastTimestamp ) {
-				throw new RuntimeException( String.format( clockBackwardErrorMessage, lastTimestamp - currentTimestamp ) );
+	private long reserve( int count ) {
+		for ( ;; ) {
+			long previous = last.get();
+			long current = timeGen() - startTimestamp;
+			long first = Math.max( previous + 1, current << sequenceBits );
+			long end = first + count - 1;
+			long drift = ( end >>> sequenceBits ) - current;
+			if ( drift > MAX_DRIFT_MILLIS ) {
+				throw new IllegalStateException( String.format( clockDriftErrorMessage, drift ) );
 			}
-			if ( lastTimestamp == currentTimestamp ) {
-				sequence = ( sequence + 1 ) & maxSequenceMask;
-				if ( sequence == 0 ) {
-					currentTimestamp = blockNextMillis( lastTimestamp );
-				}
-			} else {
-				sequence = 0;
+			if ( last.compareAndSet( previous, end ) ) {
+				return first;
 			}
-			lastTimestamp = currentTimestamp;
-			return ( ( currentTimestamp - startTimestamp ) << timestampShift ) | 
-				( dataCenterId << dataCenterIdShift ) | 
-				( workerId << workerIdShift ) | 
-				sequence;
-		} finally {
-			lock.unlock();
 		}
 	}
 	
+	/**
+	 * Convert the reserved time and sequence value to the final Id
+	 * 
+	 * @param value the reserved value
+	 * @return the final Id
+	 */
+	private long toId( long value ) {
+		return ( ( value >>> sequenceBits ) << timestampShift ) | node | ( value & maxSequenceMask );
+	}
+	
+	/**
+	 * Get the next serialization Id
+	 * 
+	 * @return next generated sequence id
+	 */
+	long createId() {
+		return toId( reserve( 1 ) );
+	}
+	
+	/**
+	 * Get the next serialization Ids with one reservation
+	 * 
+	 * @param count the number of Ids
+	 * @return next generated sequence ids
+	 */
+	long [] createIds( int count ) {
+		if ( count <= 0 ) {
+			return new long[ 0 ];
+		}
+		long first = reserve( count );
+		long [] ids = new long[ count ];
+		for ( int i = 0; i < count; i ++ ) {
+			ids[ i ] = toId( first + i );
+		}
+		return ids;
+	}
+	
 	/**
 	 * Get the next long {@code Id}
 	 * 
@@ -162,6 +204,17 @@ public class IdGenerator {
 		return init().createId();
 	}
 	
+	/**
+	 * Get the next {@code count} long {@code Id}s, which are reserved at once and are consecutive, a large batch may
+	 * overflow into the following milliseconds ahead of the clock.
+	 * 
+	 * @param count the number of Ids
+	 * @return unique {@code Id}s of the long type
+	 */
+	public static final long [] nextIds( int count ) {
+		return init().createIds( count );
+	}
+	
 	/**
 	 * Get the next string {@code Id}
 	 * 
@@ -172,19 +225,39 @@ public class IdGenerator {
 	}
 	
 	/**
-	 * Initialize the default generator, 
-	 * data center id and worker id randomly generated.
+	 * Initialize the default generator, data center id and worker id are derived from the runtime name of the
+	 * current JVM( <code>pid@hostname</code> ).
 	 * 
 	 * @return default Id generator
 	 */
 	public static final IdGenerator init() {
 		if ( generator == null ) {
-			Random random = new Random();
-			return init( random.nextInt( 31 ), random.nextInt( 31 ) );
+			return init( ManagementFactory.getRuntimeMXBean().getName() );
 		}
 		return generator;
 	}
 	
+	/**
+	 * Initialize the generator whose data center id and worker id are derived from the hash of the node identity,
+	 * such as <code>hostname:port</code>, so that the same node always gets the same ids.
+	 * 
+	 * <p>
+	 * The hash is folded into only 10 node bits, two nodes collide with a probability of about 50% from around 40 nodes
+	 * on, and colliding nodes generate duplicate ids in the same millisecond. It is only a fallback for a handful of
+	 * nodes, larger deployments should assign explicit ids to each node or lease them from a coordinator such as
+	 * Redis or ZooKeeper and call {@link #init(int, int)}.
+	 * </p>
+	 * 
+	 * @param identity the node identity
+	 * @return node generator
+	 */
+	public static final IdGenerator init( String identity ) {
+		int hash = identity == null ? 0 : identity.hashCode();
+		hash ^= ( hash >>> 16 );
+		hash ^= ( hash >>> 10 );
+		return init( hash & maxWorkerId, ( hash >>> workerIdBits ) & maxDataCenterId );
+	}
+	
 	/**
 	 * Initialize the custom generator, 
 	 * you can specify the worker id and data center id.
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.utils;
+
+/**
+ * A shared and bounded pool of the low-cardinality strings of the dictionaries, such as the keys, types, aliases and
+ * the segments of the key paths, which are otherwise duplicated in every row of every language.
+ * 
+ * <p>
+ * The pool is a fixed-size table where each string has exactly one slot, a string replaces the one in its slot when
+ * they are not equal, so the pool never grows and keeps the recently used strings when there are more of them than
+ * slots. It is lock-free, the slots are written racily, which is safe since strings are immutable.
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+public final class StringPool {
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int MAX_LENGTH = 128;
+    private static final String [] POOL = new String[ CAPACITY ];
+
+    private StringPool() {}
+
+    /**
+     * Return the pooled instance equal to the string, or pool the string itself
+     * 
+     * @param value the string to be pooled
+     * @return the pooled instance, or the string itself if it is {@code null} or too long to be pooled.
+     */
+    public static String intern( String value ) {
+        if ( value == null || value.length() > MAX_LENGTH ) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int slot = ( hash ^ ( hash >>> 16 ) ) & ( CAPACITY - 1 );
+        String pooled = POOL[ slot ];
+        if ( value.equals( pooled ) ) {
+            return pooled;
+        }
+        POOL[ slot ] = value;
+        return value;
+    }
+
+}
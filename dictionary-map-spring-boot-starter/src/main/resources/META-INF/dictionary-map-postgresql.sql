@@ -0,0 +1,28 @@
+-- ----------------------------
+-- Table structure for global_dictionary ( PostgreSQL )
+-- ----------------------------
+DROP TABLE IF EXISTS "global_dictionary";
+CREATE TABLE "global_dictionary" (
+  "id" bigint NOT NULL,
+  "type" varchar(8) NOT NULL,
+  "key" varchar(64) NOT NULL,
+  "code" smallint NOT NULL DEFAULT 0,
+  "alias" varchar(32) DEFAULT NULL,
+  "text" varchar(128) DEFAULT NULL,
+  "enabled" smallint DEFAULT 1,
+  "create_time" timestamp NOT NULL,
+  "update_time" timestamp DEFAULT NULL,
+  PRIMARY KEY ("id")
+);
+
+-- ----------------------------
+-- Table structure for global_dictionary_lang ( PostgreSQL )
+-- ----------------------------
+DROP TABLE IF EXISTS "global_dictionary_lang";
+CREATE TABLE "global_dictionary_lang" (
+  "id" bigint NOT NULL,
+  "lang" varchar(64) DEFAULT NULL,
+  "label" varchar(128) NOT NULL,
+  "create_time" timestamp NOT NULL,
+  PRIMARY KEY ("id")
+);
@@ -0,0 +1,31 @@
+-- ----------------------------
+-- Table structure for global_dictionary ( spring.dict.storage-mode=single-table )
+-- The language column must be the last column, the default language is stored as an empty string.
+-- ----------------------------
+DROP TABLE IF EXISTS `global_dictionary`;
+CREATE TABLE `global_dictionary` (
+  `id` bigint(20) unsigned NOT NULL COMMENT '主键',
+  `type` enum('ENUM','TEXT') NOT NULL,
+  `key` varchar(64) NOT NULL COMMENT '字典键',
+  `code` tinyint(5) NOT NULL DEFAULT '0' COMMENT '字典真实值',
+  `alias` varchar(32) DEFAULT NULL COMMENT '键别名',
+  `text` varchar(128) DEFAULT NULL COMMENT '字典文本',
+  `enabled` tinyint(1) DEFAULT '1' COMMENT '是否启用',
+  `create_time` datetime NOT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '更新时间',
+  `lang` varchar(32) NOT NULL DEFAULT '' COMMENT '字典语言',
+  PRIMARY KEY (`id`,`lang`),
+  KEY `idx_lang_key_code` (`lang`,`key`,`code`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ----------------------------
+-- Table structure for global_dictionary_lang
+-- ----------------------------
+DROP TABLE IF EXISTS `global_dictionary_lang`;
+CREATE TABLE `global_dictionary_lang` (
+  `id` bigint(20) unsigned NOT NULL COMMENT '主键',
+  `lang` varchar(64) DEFAULT NULL COMMENT '字典键',
+  `label` varchar(128) NOT NULL COMMENT '字典文本',
+  `create_time` datetime NOT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
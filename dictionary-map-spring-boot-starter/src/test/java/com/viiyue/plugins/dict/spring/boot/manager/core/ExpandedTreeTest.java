@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.manager.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.viiyue.plugins.dict.spring.boot.config.DictionaryProperties;
+import com.viiyue.plugins.dict.spring.boot.meta.Dictionary;
+import com.viiyue.plugins.dict.spring.boot.utils.Helper;
+
+/**
+ * Tests of the path copying of {@link ExpandedTree} and the branch slicing of its expanded map
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+class ExpandedTreeTest {
+
+    private final DictionaryProperties props = new DictionaryProperties();
+
+    @Test
+    void expandsTheKeysByNamespace() {
+        ExpandedTree tree = ExpandedTree.build( Arrays.asList(
+            text( "gender", "male" ), text( "gender", "female" ),
+            text( "region.city", "beijing" ), text( "region.city", "shanghai" ),
+            text( "region.area", "east" ), text( "region.area", "west" ).disable()
+        ), props );
+        Map<String, Object> expanded = tree.expanded();
+        // The dictionaries of a key without namespaces replace each other
+        assertEquals( "female", expanded.get( "gender" ) );
+        assertEquals( Arrays.asList( "beijing", "shanghai" ), region( expanded ).get( "city" ) );
+        // Disabled dictionaries are left out
+        assertEquals( "east", region( expanded ).get( "area" ) );
+    }
+
+    @Test
+    void nodeWithChildrenIsExpandedAsNamespace() {
+        ExpandedTree tree = ExpandedTree.build( Arrays.asList(
+            text( "region", "value" ), text( "region.city", "beijing" )
+        ), props );
+        assertEquals( Collections.singletonMap( "city", "beijing" ), tree.expanded().get( "region" ) );
+
+        // The own value shows up again once the children are gone
+        ExpandedTree removed = tree.update( changes( "region.city" ), props );
+        assertEquals( "value", removed.expanded().get( "region" ) );
+    }
+
+    @Test
+    void updateCopiesOnlyThePathOfTheChangedKeys() {
+        ExpandedTree tree = ExpandedTree.build( Arrays.asList(
+            text( "a.x", "1" ), text( "a.y", "2" ), text( "b.z", "3" ), text( "c", "4" )
+        ), props );
+        Map<String, Object> before = tree.expanded();
+        Map<String, Object> snapshot = deepCopy( before );
+
+        ExpandedTree next = tree.update( changes( "a.x", text( "a.x", "changed" ) ), props );
+        Map<String, Object> after = next.expanded();
+        assertEquals( "changed", branch( after, "a" ).get( "x" ) );
+        assertEquals( "2", branch( after, "a" ).get( "y" ) );
+
+        // The previous tree and the maps handed out by it are left unchanged
+        assertEquals( snapshot, before );
+        assertSame( before, tree.expanded() );
+
+        // The maps on the path are copied, the others are shared
+        assertNotSame( before, after );
+        assertNotSame( before.get( "a" ), after.get( "a" ) );
+        assertSame( before.get( "b" ), after.get( "b" ) );
+    }
+
+    @Test
+    void emptyListRemovesTheKeyAndItsEmptyNamespaces() {
+        ExpandedTree tree = ExpandedTree.build( Arrays.asList( text( "a.x", "1" ), text( "b.y.z", "2" ) ), props );
+        ExpandedTree next = tree.update( changes( "b.y.z" ), props );
+        assertFalse( next.expanded().containsKey( "b" ) );
+        assertSame( tree.expanded().get( "a" ), next.expanded().get( "a" ) );
+        assertTrue( branch( tree.expanded(), "b" ).containsKey( "y" ) );
+
+        // Removing an unknown key changes nothing
+        ExpandedTree same = next.update( changes( "missing.key" ), props );
+        assertEquals( next.expanded(), same.expanded() );
+        assertTrue( ExpandedTree.EMPTY.update( changes( "a" ), props ).expanded().isEmpty() );
+    }
+
+    @Test
+    void updateWithoutChangesReturnsTheSameTree() {
+        ExpandedTree tree = ExpandedTree.build( Collections.singletonList( text( "a", "1" ) ), props );
+        assertSame( tree, tree.update( Collections.emptyMap(), props ) );
+    }
+
+    @Test
+    void branchSlicesTheNamespace() {
+        Map<String, Object> expanded = ExpandedTree.build( Arrays.asList(
+            text( "gender", "male" ), text( "region.city.north", "beijing" ), text( "region.area", "east" )
+        ), props ).expanded();
+
+        Map<String, Object> region = Helper.branch( expanded, "region" );
+        assertEquals( Collections.singleton( "region" ), region.keySet() );
+        assertSame( expanded.get( "region" ), region.get( "region" ) );
+
+        // The maps on the path only keep the branch
+        Map<String, Object> city = Helper.branch( expanded, "region.city" );
+        assertEquals( Collections.singletonMap( "region",
+                Collections.singletonMap( "city", Collections.singletonMap( "north", "beijing" ) ) ), city );
+        assertEquals( Collections.singletonMap( "gender", "male" ), Helper.branch( expanded, "gender" ) );
+
+        // Nothing under the namespace, or a leaf value on the way to it
+        assertTrue( Helper.branch( expanded, "missing" ).isEmpty() );
+        assertTrue( Helper.branch( expanded, "region.missing" ).isEmpty() );
+        assertTrue( Helper.branch( expanded, "gender.male" ).isEmpty() );
+        assertTrue( Helper.branch( expanded, "reg" ).isEmpty() );
+    }
+
+    private static Dictionary text( String key, String text ) {
+        Dictionary dict = new Dictionary();
+        dict.setKey( key );
+        dict.setText( text );
+        return dict.asText().enable();
+    }
+
+    private static Map<String, List<Dictionary>> changes( String key, Dictionary ... dicts ) {
+        Map<String, List<Dictionary>> changes = new LinkedHashMap<>();
+        changes.put( key, Arrays.asList( dicts ) );
+        return changes;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Map<String, Object> branch( Map<String, Object> expanded, String key ) {
+        return ( Map<String, Object> ) expanded.get( key );
+    }
+
+    private static Map<String, Object> region( Map<String, Object> expanded ) {
+        return branch( expanded, "region" );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Map<String, Object> deepCopy( Map<String, Object> source ) {
+        Map<String, Object> copy = new HashMap<>( source );
+        copy.replaceAll( ( key, value ) -> value instanceof Map ? deepCopy( ( Map<String, Object> ) value ) : value );
+        return copy;
+    }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.meta;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the dense and the hashed code tables of {@link DictionaryIndex}
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+class DictionaryIndexTest {
+
+    @Test
+    void denseTableMatchesSmallCodes() {
+        Dictionary zero = dict( 0, true ), max = dict( 1023, true ), disabled = dict( 7, false );
+        DictionaryIndex index = DictionaryIndex.of( Arrays.asList( zero, disabled, max ) );
+        assertSame( zero, index.match( 0 ) );
+        assertSame( max, index.match( 1023 ) );
+        assertNull( index.match( 7 ) );
+        assertSame( disabled, index.matchAlways( 7 ) );
+
+        // Out of the array in both directions
+        assertNull( index.match( -1 ) );
+        assertNull( index.match( 1024 ) );
+        assertNull( index.matchAlways( 5000 ) );
+        assertNull( index.match( 500 ) );
+    }
+
+    @Test
+    void hashedTableMatchesLargeAndNegativeCodes() {
+        Dictionary negative = dict( -3, true ), large = dict( 5000, true ), small = dict( 2, true );
+        Dictionary disabled = dict( 1024, false );
+        DictionaryIndex index = DictionaryIndex.of( Arrays.asList( small, negative, large, disabled ) );
+        assertSame( negative, index.match( -3 ) );
+        assertSame( large, index.match( 5000 ) );
+        // One code out of the array range moves the whole table to the map, the small codes still match
+        assertSame( small, index.match( 2 ) );
+        assertNull( index.match( 1024 ) );
+        assertSame( disabled, index.matchAlways( 1024 ) );
+        assertNull( index.match( 0 ) );
+        assertNull( index.matchAlways( 4999 ) );
+    }
+
+    @Test
+    void firstMatchWinsLikeALinearScan() {
+        for ( int base : new int [] { 5, 5000 } ) {
+            Dictionary first = dict( base, false ), second = dict( base, true ), third = dict( base, true );
+            DictionaryIndex index = DictionaryIndex.of( Arrays.asList( first, second, third ) );
+            assertSame( first, index.matchAlways( base ) );
+            assertSame( second, index.match( base ) );
+        }
+    }
+
+    @Test
+    void skipsDictionariesWithoutCode() {
+        Dictionary none = dict( null, true ), one = dict( 1, true );
+        DictionaryIndex dense = DictionaryIndex.of( Arrays.asList( none, one ) );
+        assertSame( one, dense.match( 1 ) );
+        assertNull( dense.match( 0 ) );
+
+        DictionaryIndex onlyNull = DictionaryIndex.of( Collections.singletonList( none ) );
+        assertNull( onlyNull.match( 0 ) );
+        assertNull( onlyNull.matchAlways( 0 ) );
+    }
+
+    @Test
+    void compactListIsSearchedInPlace() {
+        List<Dictionary> dicts = Arrays.asList(
+            dict( 9, false ), dict( -1, false ), dict( 3000, false ), dict( 9, true )
+        );
+        CompactDictionaryList compact = CompactDictionaryList.of( dicts );
+        DictionaryIndex index = DictionaryIndex.of( compact );
+        assertTrue( index.isIndexOf( compact ) );
+        assertEquals( Integer.valueOf( 9 ), index.matchAlways( 9 ).getCode() );
+        assertFalse( index.matchAlways( 9 ).enabled() );
+        assertTrue( index.match( 9 ).enabled() );
+        assertNull( index.match( 3000 ) );
+        assertEquals( Integer.valueOf( 3000 ), index.matchAlways( 3000 ).getCode() );
+        assertNull( index.matchAlways( 1 ) );
+    }
+
+    @Test
+    void emptyTableMatchesNothing() {
+        assertSame( DictionaryIndex.EMPTY, DictionaryIndex.of( null ) );
+        assertSame( DictionaryIndex.EMPTY, DictionaryIndex.of( Collections.emptyList() ) );
+        assertNull( DictionaryIndex.EMPTY.match( 0 ) );
+        assertNull( DictionaryIndex.EMPTY.matchAlways( 0 ) );
+        assertTrue( DictionaryIndex.EMPTY.isIndexOf( null ) );
+        assertTrue( DictionaryIndex.EMPTY.isIndexOf( new ArrayList<>() ) );
+        assertFalse( DictionaryIndex.EMPTY.isIndexOf( Collections.singletonList( dict( 1, true ) ) ) );
+    }
+
+    @Test
+    void isIndexOfComparesTheListInstance() {
+        List<Dictionary> dicts = Arrays.asList( dict( 1, true ), dict( 2, true ) );
+        DictionaryIndex index = DictionaryIndex.of( dicts );
+        assertTrue( index.isIndexOf( dicts ) );
+        assertFalse( index.isIndexOf( new ArrayList<>( dicts ) ) );
+    }
+
+    private static Dictionary dict( Integer code, boolean enabled ) {
+        Dictionary dict = new Dictionary();
+        dict.setKey( "test" );
+        dict.setCode( code );
+        dict.setText( "text-" + code );
+        dict.setEnabled( enabled );
+        return dict;
+    }
+
+}
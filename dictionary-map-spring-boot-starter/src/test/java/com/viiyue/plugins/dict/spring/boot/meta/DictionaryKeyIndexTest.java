@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.meta;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the namespace ranges of {@link DictionaryKeyIndex}
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+class DictionaryKeyIndexTest {
+
+    /** The neighbours of "user" in the sort order, '-' sorts before '.' and '/' right after it */
+    private static final List<String> KEYS = Arrays.asList(
+        "username", "user.b", "user-x", "user", "user/x", "user0", "user.a", "user.a.c", "us", "usera", "user.b"
+    );
+
+    private final List<Dictionary> dicts = dicts( KEYS );
+    private final DictionaryKeyIndex index = DictionaryKeyIndex.of( dicts );
+
+    @Test
+    void namespaceStopsAtTheBoundaryOfTheSegment() {
+        assertEquals( Arrays.asList( "user", "user.a", "user.a.c", "user.b" ), index.keysOf( "user" ) );
+        assertEquals( Arrays.asList( "user.a", "user.a.c" ), index.keysOf( "user.a" ) );
+        assertEquals( Collections.singletonList( "user-x" ), index.keysOf( "user-x" ) );
+        assertEquals( Collections.singletonList( "username" ), index.keysOf( "username" ) );
+        assertEquals( Collections.singletonList( "us" ), index.keysOf( "us" ) );
+        assertTrue( index.keysOf( "use" ).isEmpty() );
+        assertTrue( index.keysOf( "user.c" ).isEmpty() );
+    }
+
+    @Test
+    void namespaceWithoutOwnKeyOnlyHasTheKeysBelowIt() {
+        List<Dictionary> dicts = dicts( Arrays.asList( "user-x", "user.b", "user.a", "user/x" ) );
+        DictionaryKeyIndex index = DictionaryKeyIndex.of( dicts );
+        assertEquals( Arrays.asList( "user.a", "user.b" ), index.keysOf( "user" ) );
+    }
+
+    @Test
+    void dictionariesFollowTheKeysAndThenTheListOrder() {
+        List<Dictionary> results = index.dictsOf( "user" );
+        assertEquals( Arrays.asList( "user", "user.a", "user.a.c", "user.b", "user.b" ), keys( results ) );
+        // The two rows of "user.b" keep the list order
+        assertEquals( Arrays.asList( 1, 10 ), codes( results.subList( 3, 5 ) ) );
+        assertEquals( index.dictsOf( "user" ), DictionaryKeyIndex.scan( dicts, "user" ) );
+    }
+
+    @Test
+    void emptyPrefixMeansAllKeys() {
+        List<String> sorted = new ArrayList<>( KEYS );
+        Collections.sort( sorted );
+        assertEquals( sorted.stream().distinct().collect( Collectors.toList() ), index.keysOf( "" ) );
+        assertEquals( sorted, keys( index.dictsOf( "" ) ) );
+        assertEquals( index.dictsOf( "" ), DictionaryKeyIndex.scan( dicts, "" ) );
+        assertEquals( 10, index.size() );
+    }
+
+    @Test
+    void scanMatchesTheIndex() {
+        List<String> prefixes = Arrays.asList(
+            "", "us", "use", "user", "user.a", "user.b", "user-x", "user/x", "user0"
+        );
+        for ( String prefix : prefixes ) {
+            assertEquals( index.dictsOf( prefix ), DictionaryKeyIndex.scan( dicts, prefix ), prefix );
+        }
+        assertTrue( DictionaryKeyIndex.scan( null, "user" ).isEmpty() );
+    }
+
+    @Test
+    void dictionariesWithoutKeyAreSkipped() {
+        List<Dictionary> dicts = dicts( Arrays.asList( "user", null, "user.a" ) );
+        DictionaryKeyIndex index = DictionaryKeyIndex.of( dicts );
+        assertEquals( 2, index.size() );
+        assertEquals( Arrays.asList( 0, 2 ), codes( index.dictsOf( "" ) ) );
+        assertEquals( index.dictsOf( "" ), DictionaryKeyIndex.scan( dicts, "" ) );
+    }
+
+    @Test
+    void emptyIndexAndListInstance() {
+        assertSame( DictionaryKeyIndex.EMPTY, DictionaryKeyIndex.of( null ) );
+        assertSame( DictionaryKeyIndex.EMPTY, DictionaryKeyIndex.of( Collections.emptyList() ) );
+        assertTrue( DictionaryKeyIndex.EMPTY.keysOf( "user" ).isEmpty() );
+        assertTrue( DictionaryKeyIndex.EMPTY.dictsOf( "" ).isEmpty() );
+        assertTrue( DictionaryKeyIndex.EMPTY.isIndexOf( null ) );
+        assertTrue( index.isIndexOf( dicts ) );
+        assertFalse( index.isIndexOf( new ArrayList<>( dicts ) ) );
+    }
+
+    @Test
+    void namespaceStripsTheTrailingWildcard() {
+        assertEquals( "user", DictionaryKeyIndex.namespace( "user" ) );
+        assertEquals( "user", DictionaryKeyIndex.namespace( "user." ) );
+        assertEquals( "user", DictionaryKeyIndex.namespace( "user.*" ) );
+        assertEquals( "user.a", DictionaryKeyIndex.namespace( "user.a.*" ) );
+        assertEquals( "", DictionaryKeyIndex.namespace( "" ) );
+    }
+
+    private static List<Dictionary> dicts( List<String> keys ) {
+        List<Dictionary> dicts = new ArrayList<>( keys.size() );
+        for ( int i = 0; i < keys.size(); i ++ ) {
+            Dictionary dict = new Dictionary();
+            dict.setKey( keys.get( i ) );
+            dict.setCode( i );
+            dicts.add( dict );
+        }
+        return dicts;
+    }
+
+    private static List<String> keys( List<Dictionary> dicts ) {
+        return dicts.stream().map( Dictionary::getKey ).collect( Collectors.toList() );
+    }
+
+    private static List<Integer> codes( List<Dictionary> dicts ) {
+        return dicts.stream().map( Dictionary::getCode ).collect( Collectors.toList() );
+    }
+
+}
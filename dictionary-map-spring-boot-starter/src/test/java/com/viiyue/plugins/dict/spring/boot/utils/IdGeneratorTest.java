@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.viiyue.plugins.dict.spring.boot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the lock-free reservation of {@link IdGenerator}
+ *
+ * @author tangxbai
+ * @since 1.0.0
+ */
+class IdGeneratorTest {
+
+    /** 2019-01-01, the start timestamp of the generator */
+    private static final long START = 1548950400000L;
+    private static final int SEQUENCE = 4096;
+
+    @Test
+    void idsCarryTheTimeAndTheNodeBits() {
+        ManualGenerator generator = new ManualGenerator( 3, 17, 1000 );
+        long id = generator.createId();
+        assertEquals( 1000, time( id ) );
+        assertEquals( 17, ( id >>> 17 ) & 31 ); // data center id
+        assertEquals( 3, ( id >>> 12 ) & 31 ); // worker id
+        assertEquals( 0, sequence( id ) );
+        assertEquals( 1, sequence( generator.createId() ) );
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows( IllegalArgumentException.class, () -> new IdGenerator( 32, 0 ) );
+        assertThrows( IllegalArgumentException.class, () -> new IdGenerator( -1, 0 ) );
+        assertThrows( IllegalArgumentException.class, () -> new IdGenerator( 0, 32 ) );
+        assertThrows( IllegalArgumentException.class, () -> new IdGenerator( 0, -1 ) );
+    }
+
+    @Test
+    void batchesAreConsecutive() {
+        ManualGenerator generator = new ManualGenerator( 1, 1, 1000 );
+        long [] ids = generator.createIds( 100 );
+        assertEquals( 100, ids.length );
+        for ( int i = 1; i < ids.length; i ++ ) {
+            assertEquals( ids[ i - 1 ] + 1, ids[ i ] );
+        }
+        assertEquals( 0, generator.createIds( 0 ).length );
+    }
+
+    @Test
+    void sequenceOverflowBorrowsTheNextMillisecond() {
+        ManualGenerator generator = new ManualGenerator( 1, 1, 1000 );
+        long [] ids = generator.createIds( SEQUENCE + 10 );
+        assertEquals( 1000, time( ids[ SEQUENCE - 1 ] ) );
+        assertEquals( SEQUENCE - 1, sequence( ids[ SEQUENCE - 1 ] ) );
+        assertEquals( 1001, time( ids[ SEQUENCE ] ) );
+        assertEquals( 0, sequence( ids[ SEQUENCE ] ) );
+        assertIncreasing( ids );
+
+        // The following ids continue after the borrowed ones while the clock has not caught up yet
+        long next = generator.createId();
+        assertEquals( 1001, time( next ) );
+        assertEquals( 10, sequence( next ) );
+
+        // And restart the sequence once it has
+        generator.now = 1005;
+        next = generator.createId();
+        assertEquals( 1005, time( next ) );
+        assertEquals( 0, sequence( next ) );
+    }
+
+    @Test
+    void clockMovingBackwardsKeepsTheIdsIncreasing() {
+        ManualGenerator generator = new ManualGenerator( 1, 1, 1000 );
+        long before = generator.createId();
+        generator.now = 990;
+        long after = generator.createId();
+        assertTrue( after > before );
+        assertEquals( 1000, time( after ) );
+    }
+
+    @Test
+    void refusesToRunTooFarAheadOfTheClock() {
+        ManualGenerator generator = new ManualGenerator( 1, 1, 1000 );
+        long last = generator.createId();
+
+        // The clock moved backwards by more than the tolerated drift
+        generator.now = 1000 - IdGenerator.MAX_DRIFT_MILLIS - 1;
+        assertThrows( IllegalStateException.class, generator::createId );
+
+        // Nothing was reserved by the refused call
+        generator.now = 1000;
+        assertEquals( last + 1, generator.createId() );
+
+        // A batch borrowing the following milliseconds must not outrun the clock by more than the drift either
+        generator.now = 1000 - IdGenerator.MAX_DRIFT_MILLIS + 1;
+        assertThrows( IllegalStateException.class, () -> generator.createIds( 3 * SEQUENCE ) );
+        long [] ids = generator.createIds( SEQUENCE );
+        assertEquals( last + 2, ids[ 0 ] );
+        assertEquals( 1001, time( ids[ ids.length - 1 ] ) );
+    }
+
+    @Test
+    void concurrentReservationsNeverOverlap() throws Exception {
+        IdGenerator generator = new IdGenerator( 7, 9 );
+        int threads = 8, rounds = 5000;
+        Set<Long> all = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try {
+            List<Future<?>> futures = new ArrayList<>( threads );
+            for ( int t = 0; t < threads; t ++ ) {
+                futures.add( executor.submit( () -> {
+                    long previous = Long.MIN_VALUE;
+                    for ( int i = 0; i < rounds; i ++ ) {
+                        long [] ids = i % 2 == 0 ? new long [] { generator.createId() } : generator.createIds( 7 );
+                        for ( long id : ids ) {
+                            assertTrue( id > previous, "The ids of one thread must increase" );
+                            assertTrue( all.add( id ), "Duplicate id " + id );
+                            previous = id;
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures ) {
+                future.get( 1, TimeUnit.MINUTES );
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals( threads * ( rounds / 2 ) * 8, all.size() );
+    }
+
+    private static long time( long id ) {
+        return id >>> 22;
+    }
+
+    private static long sequence( long id ) {
+        return id & ( SEQUENCE - 1 );
+    }
+
+    private static void assertIncreasing( long [] ids ) {
+        for ( int i = 1; i < ids.length; i ++ ) {
+            assertTrue( ids[ i ] > ids[ i - 1 ] );
+        }
+    }
+
+    /**
+     * The generator whose clock is set by the test, the time is relative to the start timestamp
+     */
+    private static final class ManualGenerator extends IdGenerator {
+
+        private long now;
+
+        private ManualGenerator( int workerId, int dataCenterId, long now ) {
+            super( workerId, dataCenterId );
+            this.now = now;
+        }
+
+        @Override
+        long timeGen() {
+            return START + now;
+        }
+
+    }
+
+}